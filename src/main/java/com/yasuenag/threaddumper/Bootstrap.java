@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2019, 2023, Yasumasa Suenaga
+ * Copyright (C) 2019, 2026, Yasumasa Suenaga
  *
  * This file is part of ThreadDumper.
  *
@@ -18,39 +18,76 @@
 */
 package com.yasuenag.threaddumper;
 
+import com.yasuenag.threaddumper.export.CollapsedStackExporter;
+import com.yasuenag.threaddumper.export.CsvExporter;
+import com.yasuenag.threaddumper.export.ExportPipeline;
+import com.yasuenag.threaddumper.parser.ParseStatistics;
+import com.yasuenag.threaddumper.parser.ThreadDumpParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import javafx.application.Application;
-import static javafx.application.Application.launch;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
-import javafx.stage.Stage;
 
 
-public class Bootstrap extends Application {
-
-    @Override
-    public void start(Stage stage) throws Exception {
-        var loader = new FXMLLoader(Bootstrap.class.getResource("/fxml/main.fxml"));
-        Parent root = loader.load();
-        
-        Scene scene = new Scene(root);
-        ((MainController)loader.getController()).setStage(stage);
-        
-        stage.setTitle("ThreadDumper");
-        stage.setScene(scene);
-        stage.show();
-    }
+public class Bootstrap {
 
     /**
-     * The main() method is ignored in correctly deployed JavaFX application.
-     * main() serves only as fallback in case the application can not be
-     * launched through deployment artifacts, e.g., in IDEs with limited FX
-     * support. NetBeans ignores main().
+     * Entry point of ThreadDumper. GUI ({@link ThreadDumperApplication}) is
+     * launched if no command is given. Classes for parsing and JavaFX are
+     * not loaded until they are used.
+     *
+     * "--stats &lt;files...&gt;" parses thread dumps and prints statistics of
+     * parsing without GUI.
+     * "--export &lt;dir&gt; &lt;files...&gt;" exports thread dumps to CSV and
+     * collapsed stacks in the directory without GUI.
      *
      * @param args the command line arguments
      */
-    public static void main(String[] args) {
-        launch(args);
+    public static void main(String[] args) throws IOException {
+        
+        if((args.length > 0) && args[0].equals("--stats")){
+            printStatistics(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        else if((args.length > 1) && args[0].equals("--export")){
+            export(Path.of(args[1]), Arrays.copyOfRange(args, 2, args.length));
+            return;
+        }
+        
+        Application.launch(ThreadDumperApplication.class, args);
+    }
+    
+    private static void printStatistics(String[] files){
+        var statistics = new ParseStatistics();
+        ThreadDumpParser.parse(Arrays.stream(files)
+                                     .map(Path::of)
+                                     .collect(Collectors.toList()),
+                               ThreadDumpParser.Mode.RESILIENT,
+                               statistics);
+        System.out.print(statistics);
+    }
+    
+    private static void export(Path directory, String[] files) throws IOException{
+        Files.createDirectories(directory);
+        var statistics = new ParseStatistics();
+        
+        // Parsed thread dumps are written in parallel, and they are not held.
+        var pipeline = new ExportPipeline(List.of(new CsvExporter(directory),
+                                                  new CollapsedStackExporter(directory.resolve("stacks.collapsed"))));
+        try(pipeline){
+            ThreadDumpParser.parse(Arrays.stream(files)
+                                         .map(Path::of)
+                                         .collect(Collectors.toList()),
+                                   ThreadDumpParser.Mode.RESILIENT,
+                                   statistics,
+                                   pipeline);
+        }
+        
+        System.out.println(pipeline.getExportedDumps() + " thread dumps are exported to " + directory);
+        System.out.print(statistics);
     }
 
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper;
+
+import com.yasuenag.threaddumper.analysis.AnalysisScheduler;
+import com.yasuenag.threaddumper.analysis.ThreadAnalyses;
+import com.yasuenag.threaddumper.parser.ParseStatistics;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadDumpParser;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import javafx.application.Platform;
+import javafx.stage.Stage;
+import javax.management.ObjectName;
+
+/**
+ * Training run for CDS archive in the runtime image.
+ *
+ * It is run with -XX:DumpLoadedClassList at build time (cds profile) to
+ * collect classes which are used at startup: opening the main window,
+ * parsing thread dumps of itself, and analyzing them. It exits with non-zero
+ * status if any of them fails, including the case that JavaFX cannot be
+ * started (e.g. no display), because the archive without the main window
+ * does not reduce startup time of GUI.
+ *
+ * @author yasuenag
+ */
+public class CDSTraining {
+
+    private static String threadPrint() throws Exception{
+        var server = ManagementFactory.getPlatformMBeanServer();
+        return (String)server.invoke(new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                                     "threadPrint",
+                                     new Object[]{new String[]{"-l"}},
+                                     new String[]{String[].class.getName()});
+    }
+
+    private static void parseAndAnalyze() throws Exception{
+        var file = Files.createTempFile("threaddumper", ".txt");
+        try{
+            // Two thread dumps are needed to compare call stacks.
+            Files.writeString(file, threadPrint() + System.lineSeparator() + threadPrint());
+            List<ThreadDump> dumps = ThreadDumpParser.parse(List.of(file), ThreadDumpParser.Mode.RESILIENT, new ParseStatistics());
+
+            try(var scheduler = new AnalysisScheduler()){
+                ThreadAnalyses.registerTo(scheduler);
+                var runs = dumps.stream()
+                                .collect(Collectors.groupingBy(ThreadDump::getSource, LinkedHashMap::new, Collectors.toList()))
+                                .entrySet()
+                                .stream()
+                                .map(e -> scheduler.submit(e.getKey(), e.getValue()).getCompletion())
+                                .toArray(CompletableFuture[]::new);
+                CompletableFuture.allOf(runs).join();
+            }
+        }
+        finally{
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * @return false if JavaFX cannot be started (e.g. no display).
+     */
+    private static boolean openMainWindow(){
+        var shown = new CompletableFuture<Void>();
+        try{
+            Platform.startup(() -> {
+                try{
+                    var stage = new Stage();
+                    new ThreadDumperApplication().start(stage);
+                    stage.close();
+                    shown.complete(null);
+                }
+                catch(Throwable e){
+                    shown.completeExceptionally(e);
+                }
+            });
+        }
+        catch(UnsupportedOperationException e){
+            System.err.println("Main window is not trained: " + e);
+            return false;
+        }
+
+        // Failure in the main window fails the build.
+        try{
+            shown.join();
+        }
+        finally{
+            Platform.exit();
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws Exception{
+        if(!openMainWindow()){
+            System.exit(1);
+        }
+        parseAndAnalyze();
+    }
+
+}
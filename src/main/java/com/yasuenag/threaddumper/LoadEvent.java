@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for loading thread dumps to the view.
+ *
+ * @author yasuenag
+ */
+@Name("com.yasuenag.threaddumper.Load")
+@Label("Load Thread Dumps")
+@Category("ThreadDumper")
+@Description("Parsing thread dumps and building views")
+class LoadEvent extends Event {
+
+    @Label("Files")
+    int files;
+
+    @Label("Thread Dumps")
+    long dumps;
+
+    @Label("Threads")
+    long threads;
+
+    @Label("Parse Time")
+    @Timespan
+    long parseNanos;
+
+    @Label("Group Time")
+    @Timespan
+    long groupNanos;
+
+}
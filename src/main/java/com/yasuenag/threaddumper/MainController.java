@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2019 Yasumasa Suenaga
+ * Copyright (C) 2019, 2026, Yasumasa Suenaga
  *
  * This file is part of ThreadDumper.
  *
@@ -18,18 +18,36 @@
 */
 package com.yasuenag.threaddumper;
 
+import com.yasuenag.threaddumper.analysis.AnalysisScheduler;
+import com.yasuenag.threaddumper.analysis.Downsampler;
+import com.yasuenag.threaddumper.analysis.LockAttribution;
+import com.yasuenag.threaddumper.analysis.StackDiff;
+import com.yasuenag.threaddumper.analysis.ThreadAnalyses;
+import com.yasuenag.threaddumper.analysis.ThreadListCheck;
+import com.yasuenag.threaddumper.capture.LiveSampler;
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.FrameStore;
+import com.yasuenag.threaddumper.parser.FrameTable;
+import com.yasuenag.threaddumper.parser.ParseStatistics;
 import com.yasuenag.threaddumper.parser.ThreadDump;
 import com.yasuenag.threaddumper.parser.ThreadDumpParser;
 import com.yasuenag.threaddumper.parser.ThreadInfo;
+import com.yasuenag.threaddumper.parser.TimeWindow;
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectWrapper;
@@ -39,12 +57,21 @@ import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.RadioButton;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
 import javafx.scene.control.Toggle;
 import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.GridPane;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.util.Callback;
@@ -53,6 +80,8 @@ public class MainController implements Initializable {
     
     private static class ThreadInfoForView{
         
+        private final DumpSource source;
+        
         private final int nid;
         
         private final String name;
@@ -63,28 +92,24 @@ public class MainController implements Initializable {
         
         private final long allocated;
         
-        private final boolean stuck;
+        private final StackDiff stackDiff;
+        
+        private final Map<LocalDateTime, LockAttribution.Wait> waits;
         
-        public ThreadInfoForView(int nid, List<ThreadInfo> threads){
-            this.nid = nid;
+        public ThreadInfoForView(List<ThreadInfo> threads, StackDiff stackDiff, ThreadAnalyses.Usage usage, LockAttribution locks){
+            this.source = threads.get(0).getSource();
+            this.nid = threads.get(0).getNid();
             this.name = threads.get(0).getName();
             this.threads = threads;
-            
-            var top = threads.get(0);
-            var tail = threads.get(threads.size() - 1);
-            
-            this.cpu = (top.getCpu().isPresent() && tail.getCpu().isPresent()) ? (tail.getCpu().getAsDouble() - top.getCpu().getAsDouble()) : -1.0d;
-            this.allocated = (top.getAllocated().isPresent() && tail.getAllocated().isPresent()) ? (tail.getAllocated().getAsLong() - top.getAllocated().getAsLong()) : -1;
-            
-            if(threads.size() > 1){
-                this.stuck = threads.stream()
-                                    .skip(1) // skip top element
-                                    .allMatch(t -> Objects.equals(t.getCallFrames(), top.getCallFrames()));
-            }
-            else{
-                this.stuck = false;
-            }
-
+            this.cpu = usage.getCpu();
+            this.allocated = usage.getAllocated();
+            this.stackDiff = stackDiff;
+            this.waits = new HashMap<>();
+            threads.forEach(t -> locks.getWait(t).ifPresent(w -> waits.put(t.getTime(), w)));
+        }
+        
+        public DumpSource getSource(){
+            return source;
         }
         
         public int getNid(){
@@ -107,13 +132,36 @@ public class MainController implements Initializable {
             return allocated;
         }
         
+        public StackDiff getStackDiff(){
+            return stackDiff;
+        }
+        
+        /**
+         * @return monitors which this thread is waiting to lock in each thread dump.
+         */
+        public Map<LocalDateTime, LockAttribution.Wait> getWaits(){
+            return waits;
+        }
+        
+        public boolean isDeadlocked(){
+            var wait = waits.get(threads.get(threads.size() - 1).getTime());
+            return (wait != null) && wait.isDeadlocked();
+        }
+        
         public boolean isStuck(){
-            return stuck;
+            return stackDiff.getProgress() == StackDiff.Progress.STUCK;
+        }
+        
+        public boolean isContended(){
+            return threads.get(threads.size() - 1)
+                          .getThreadState()
+                          .filter(s -> s == Thread.State.BLOCKED)
+                          .isPresent();
         }
         
         @Override
         public String toString() {
-            String result = name + " (nid=" + nid;
+            String result = (source.isUnknown() ? "" : "[" + source + "] ") + name + " (nid=" + nid;
             
             if(cpu >= 0.0f){
                 result += ", cpu=" + cpu;
@@ -124,8 +172,13 @@ public class MainController implements Initializable {
             
             result += ")";
             
-            if(stuck){
-                result += "  STUCK!";
+            switch(stackDiff.getProgress()){
+                case STUCK -> result += "  STUCK since " + stackDiff.getStuckSince().get() + "!";
+                case OSCILLATING -> result += "  OSCILLATING";
+                default -> {}
+            }
+            if(isDeadlocked()){
+                result += "  DEADLOCKED!";
             }
             
             return result;
@@ -133,24 +186,207 @@ public class MainController implements Initializable {
         
     }
     
+    private static class SourceSummaryForView{
+        
+        private final DumpSource source;
+        
+        // Summaries of each source if this is the summary of all sources
+        private final List<SourceSummaryForView> children;
+        
+        private final int dumps;
+        
+        private final long virtualThreads;
+        
+        // They are set by analyses. threads is null while analyzing.
+        private List<ThreadInfoForView> threads;
+        
+        private long stuck;
+        
+        private long contended;
+        
+        private long createdThreads;
+        
+        private long exitedThreads;
+        
+        private long smrMismatches;
+        
+        public SourceSummaryForView(DumpSource source, List<ThreadDump> dumps){
+            this.source = source;
+            this.children = List.of();
+            this.dumps = dumps.size();
+            this.virtualThreads = dumps.get(dumps.size() - 1).getVirtualThreadCount();
+        }
+        
+        /**
+         * Summary of all sources.
+         */
+        public SourceSummaryForView(List<SourceSummaryForView> summaries){
+            this.source = null;
+            this.children = summaries;
+            this.dumps = summaries.stream().mapToInt(v -> v.dumps).sum();
+            this.virtualThreads = summaries.stream().mapToLong(v -> v.virtualThreads).sum();
+        }
+        
+        public DumpSource getSource(){
+            return source;
+        }
+        
+        public boolean isAnalyzing(){
+            return children.isEmpty() ? (threads == null) : children.stream().anyMatch(SourceSummaryForView::isAnalyzing);
+        }
+        
+        public void setThreads(List<ThreadInfoForView> threads){
+            this.threads = threads;
+            this.stuck = threads.stream().filter(ThreadInfoForView::isStuck).count();
+            this.contended = threads.stream().filter(ThreadInfoForView::isContended).count();
+        }
+        
+        public List<ThreadInfoForView> getThreads(){
+            if(children.isEmpty()){
+                return (threads == null) ? List.of() : threads;
+            }
+            return children.stream()
+                           .flatMap(v -> v.getThreads().stream())
+                           .collect(Collectors.toList());
+        }
+        
+        public void setChurn(List<ThreadListCheck.Churn> churn){
+            this.createdThreads = churn.stream().mapToLong(c -> c.getCreated().size()).sum();
+            this.exitedThreads = churn.stream().mapToLong(c -> c.getExited().size()).sum();
+        }
+        
+        public void setSMRMismatches(List<ThreadListCheck.Mismatch> mismatches){
+            this.smrMismatches = mismatches.size();
+        }
+        
+        public long getStuck(){
+            return children.isEmpty() ? stuck : children.stream().mapToLong(SourceSummaryForView::getStuck).sum();
+        }
+        
+        public long getContended(){
+            return children.isEmpty() ? contended : children.stream().mapToLong(SourceSummaryForView::getContended).sum();
+        }
+        
+        private long getCreatedThreads(){
+            return children.isEmpty() ? createdThreads : children.stream().mapToLong(SourceSummaryForView::getCreatedThreads).sum();
+        }
+        
+        private long getExitedThreads(){
+            return children.isEmpty() ? exitedThreads : children.stream().mapToLong(SourceSummaryForView::getExitedThreads).sum();
+        }
+        
+        private long getSMRMismatches(){
+            return children.isEmpty() ? smrMismatches : children.stream().mapToLong(SourceSummaryForView::getSMRMismatches).sum();
+        }
+        
+        @Override
+        public String toString() {
+            long created = getCreatedThreads();
+            long exited = getExitedThreads();
+            long mismatches = getSMRMismatches();
+            return ((source == null) ? "All" : source.toString()) +
+                   " (dumps=" + dumps + ", threads=" + getThreads().size() + ", stuck=" + getStuck() + ", contended=" + getContended() +
+                   ((virtualThreads > 0) ? ", virtual threads=" + virtualThreads : "") +
+                   ((created + exited > 0) ? ", created=" + created + ", exited=" + exited : "") +
+                   ((mismatches > 0) ? ", SMR mismatches=" + mismatches : "") +
+                   (isAnalyzing() ? ", analyzing..." : "") + ")";
+        }
+        
+    }
+    
     private static class TimedTableColumn extends TableColumn<Map<LocalDateTime, ThreadInfo.CallFrame>, String> implements Callback<TableColumn.CellDataFeatures<Map<LocalDateTime, ThreadInfo.CallFrame>, String>, ObservableValue<String>>{
         
         private final LocalDateTime time;
         
+        private StackDiff stackDiff;
+        
+        private LockAttribution.Wait wait;
+        
         public TimedTableColumn(LocalDateTime time){
             super(time.toString());
             this.time = time;
+            this.stackDiff = null;
+            this.wait = null;
             this.setCellValueFactory(this);
+            this.setCellFactory(c -> new ChangedFrameCell());
+        }
+        
+        public void setStackDiff(StackDiff stackDiff){
+            this.stackDiff = stackDiff;
+        }
+        
+        /**
+         * @param wait monitor which the thread is waiting to lock in this thread dump. It can be null.
+         */
+        public void setWait(LockAttribution.Wait wait){
+            this.wait = wait;
+        }
+        
+        private static String describe(LockAttribution.Wait wait){
+            if(wait.getOwner().isEmpty()){
+                return "  [owner is not found]";
+            }
+            
+            var owner = wait.getOwner().get();
+            var result = "  [held by \"" + owner.getName() + "\" (nid=" + owner.getNid() + ") for " + wait.getHoldDuration().get().toSeconds() + " s";
+            var chain = wait.getChain();
+            if(chain.size() > 1){
+                result += ", chain: " + chain.stream()
+                                            .map(t -> "\"" + t.getName() + "\"")
+                                            .collect(Collectors.joining(" -> "));
+            }
+            if(wait.isDeadlocked()){
+                result += ", DEADLOCK";
+            }
+            return result + "]";
+        }
+        
+        private class ChangedFrameCell extends TableCell<Map<LocalDateTime, ThreadInfo.CallFrame>, String>{
+            
+            @Override
+            protected void updateItem(String item, boolean empty){
+                super.updateItem(item, empty);
+                setText(empty ? null : item);
+                
+                var entry = (empty || (stackDiff == null)) ? null : stackDiff.getEntry(time).orElse(null);
+                if(entry == null){
+                    setStyle(null);
+                    return;
+                }
+                
+                // Rows are aligned to the bottom of the stack
+                int depthFromBottom = getTableView().getItems().size() - 1 - getIndex();
+                setStyle(entry.isChanged(depthFromBottom) ? "-fx-background-color: #ffe0b2;" : null);
+            }
+            
         }
 
         @Override
         public ObservableValue<String> call(CellDataFeatures<Map<LocalDateTime, ThreadInfo.CallFrame>, String> p) {
             var frame = p.getValue().get(time);
-            return new ReadOnlyObjectWrapper<>((frame == null) ? "" : frame.getStackTraceElement().toString());
+            if(frame == null){
+                return new ReadOnlyObjectWrapper<>("");
+            }
+            
+            var text = frame.getStackTraceElement().toString();
+            if((wait != null) && frame.getLock().filter(l -> l.equals(wait.getLock())).isPresent()){
+                text += describe(wait);
+            }
+            return new ReadOnlyObjectWrapper<>(text);
         }
         
     }
     
+    // Budget of resident call frames in MB
+    private static final String FRAME_BUDGET_PROPERTY = "threaddumper.frameBudget";
+    
+    // Number of the latest thread dumps to analyze while capturing
+    private static final String CAPTURE_HISTORY_PROPERTY = "threaddumper.captureHistory";
+    
+    private static final int DEFAULT_CAPTURE_HISTORY = 100;
+    
+    private static final int MAX_DIAGNOSTICS_IN_ALERT = 10;
+    
     private Stage stage;
     
     @FXML
@@ -162,19 +398,81 @@ public class MainController implements Initializable {
     @FXML
     private RadioButton sortDirectionDESC;
     
+    @FXML
+    private ListView<SourceSummaryForView> sourceList;
+    
     @FXML
     private ListView<ThreadInfoForView> threadList;
     
     @FXML
     private TableView<Map<LocalDateTime, ThreadInfo.CallFrame>> timeseriesTable;
     
+    @FXML
+    private TextField windowFrom;
+    
+    @FXML
+    private TextField windowTo;
+    
+    @FXML
+    private ChoiceBox<Downsampler.Strategy> samplingStrategy;
+    
+    @FXML
+    private Spinner<Integer> samplingInterval;
+    
+    @FXML
+    private Label statusBar;
+    
     private List<ThreadDump> dumps;
     
+    private String loadSummary;
+    
+    private LiveSampler sampler;
+    
+    private FrameStore frameStore;
+    
+    private long lastRefreshNanos;
+    
+    private Map<DumpSource, List<ThreadDump>> dumpsBySource;
+    
+    private DumpSource columnSource;
+    
+    private AnalysisScheduler scheduler;
+    
+    private List<AnalysisScheduler.Run> runs;
+    
+    // Thread which should be selected when the thread list is rebuilt
+    private ThreadInfoForView pendingThread;
+    
     @Override
     public void initialize(URL url, ResourceBundle rb) {
+        scheduler = null;
+        runs = List.of();
+        
+        sourceList.getSelectionModel().selectedItemProperty().addListener(this::onSourceChanged);
         threadList.getSelectionModel().selectedItemProperty().addListener(this::onThreadChanged);
         sortOrder.selectedToggleProperty().addListener(this::onRadioButtonChanged);
         sortDirection.selectedToggleProperty().addListener(this::onRadioButtonChanged);
+        
+        samplingStrategy.getItems().setAll(Downsampler.Strategy.values());
+        samplingStrategy.setValue(Downsampler.Strategy.ALL);
+        samplingStrategy.valueProperty().addListener((o, oldValue, newValue) -> onSamplingChanged());
+        samplingInterval.valueProperty().addListener((o, oldValue, newValue) -> onSamplingChanged());
+        samplingInterval.disableProperty().bind(samplingStrategy.valueProperty().isNotEqualTo(Downsampler.Strategy.EVERY_NTH));
+    }
+    
+    // Worker threads for analyses are not needed until the first thread dump is opened.
+    private AnalysisScheduler getScheduler(){
+        if(scheduler == null){
+            scheduler = new AnalysisScheduler();
+            ThreadAnalyses.registerTo(scheduler);
+        }
+        return scheduler;
+    }
+    
+    private void onSamplingChanged(){
+        if(dumps != null){
+            updateViews();
+        }
     }
     
     private void onThreadChanged(ObservableValue<? extends ThreadInfoForView> observable, ThreadInfoForView oldValue, ThreadInfoForView newValue){
@@ -184,20 +482,64 @@ public class MainController implements Initializable {
             return;
         }
         
-        var maxStacks = newValue.getThreads().get(0).getCallFrames().size();
+        if(!Objects.equals(newValue.getSource(), columnSource)){
+            setTimedTableColumns(newValue.getSource());
+        }
+        
+        // Call frames are loaded from FrameStore on demand.
+        List<List<ThreadInfo.CallFrame>> callFrames = newValue.getThreads()
+                                                              .stream()
+                                                              .map(t -> (List<ThreadInfo.CallFrame>)new ArrayList<>(t.getCallFrames()))
+                                                              .collect(Collectors.toList());
+        var maxStacks = callFrames.stream()
+                                  .mapToInt(List::size)
+                                  .max()
+                                  .getAsInt();
         ObservableList<Map<LocalDateTime, ThreadInfo.CallFrame>> stacks = FXCollections.observableArrayList();
         
+        // Align bottoms of the stacks
         for(int i = 0; i < maxStacks; i++){
             Map<LocalDateTime, ThreadInfo.CallFrame> callStackMap = new HashMap<>();
-            for(var info : newValue.getThreads()){
-                callStackMap.put(info.getTime(), info.getCallFrames().get(i));
+            for(int j = 0; j < callFrames.size(); j++){
+                var frames = callFrames.get(j);
+                int idx = i - (maxStacks - frames.size());
+                callStackMap.put(newValue.getThreads().get(j).getTime(), (idx < 0) ? null : frames.get(idx));
             }
             stacks.add(callStackMap);
         }
         
+        for(var column : timeseriesTable.getColumns()){
+            var timedColumn = (TimedTableColumn)column;
+            timedColumn.setStackDiff(newValue.getStackDiff());
+            timedColumn.setWait(newValue.getWaits().get(timedColumn.time));
+        }
         timeseriesTable.setItems(stacks);
     }
     
+    private void onSourceChanged(ObservableValue<? extends SourceSummaryForView> observable, SourceSummaryForView oldValue, SourceSummaryForView newValue){
+        
+        if(newValue == null){
+            threadList.getItems().clear();
+            return;
+        }
+        
+        threadList.setItems(FXCollections.observableArrayList(newValue.getThreads()));
+        onRadioButtonChanged(null, null, null);
+        
+        // Restore the thread which was selected before rebuilding views.
+        var selectedThread = pendingThread;
+        if(selectedThread != null){
+            threadList.getItems()
+                      .stream()
+                      .filter(v -> (v.getNid() == selectedThread.getNid()) && v.getSource().equals(selectedThread.getSource()))
+                      .findFirst()
+                      .ifPresent(v -> {
+                          threadList.getSelectionModel().select(v);
+                          pendingThread = null;
+                      });
+        }
+    }
+    
     private void onRadioButtonChanged(ObservableValue<? extends Toggle> observable, Toggle oldValue, Toggle newValue){
         String order = sortOrder.getSelectedToggle().getUserData().toString();
         
@@ -230,47 +572,429 @@ public class MainController implements Initializable {
             return;
         }
         
-        dumps = ThreadDumpParser.parse(files.stream()
-                                            .map(File::toPath)
-                                            .collect(Collectors.toList()));
+        TimeWindow window;
+        try{
+            window = new TimeWindow(parseTime(windowFrom.getText()), parseTime(windowTo.getText()));
+        }
+        catch(DateTimeParseException | IllegalArgumentException e){
+            var alert = new Alert(Alert.AlertType.ERROR);
+            alert.initOwner(stage);
+            alert.setHeaderText("Invalid time range");
+            alert.setContentText(e.getMessage());
+            alert.show();
+            return;
+        }
+        
+        // Current views and FrameStore are kept until new thread dumps are parsed.
+        var newStore = createFrameStore();
+        if(newStore == null){
+            return;
+        }
+        
+        var loadEvent = new LoadEvent();
+        loadEvent.begin();
+        var statistics = new ParseStatistics();
+        
+        // Call frames are paged out while parsing if they exceed the budget.
+        List<ThreadDump> loaded = Collections.synchronizedList(new ArrayList<>());
+        try{
+            ThreadDumpParser.parse(files.stream()
+                                        .map(File::toPath)
+                                        .collect(Collectors.toList()),
+                                   ThreadDumpParser.Mode.RESILIENT,
+                                   window,
+                                   statistics,
+                                   d -> {
+                                       store(newStore, d);
+                                       loaded.add(d);
+                                   });
+        }
+        catch(RuntimeException e){
+            closeFrameStore(newStore);
+            var alert = new Alert(Alert.AlertType.ERROR);
+            alert.initOwner(stage);
+            alert.setHeaderText("Cannot open thread dumps");
+            alert.setContentText(e.toString());
+            alert.show();
+            return;
+        }
+        
+        stopCapture();
+        var oldStore = frameStore;
+        var oldRuns = runs;
+        frameStore = newStore;
+        dumps = new ArrayList<>(loaded);
+        dumps.sort(Comparator.comparing(ThreadDump::getTime));
+        showDiagnostics();
+        
+        loadSummary = statistics.toSummary();
+        var viewsUpdated = updateViews();
+        retireFrameStore(oldStore, oldRuns);
+        viewsUpdated.thenAccept(groupNanos -> {
+            statistics.addPhase(ParseStatistics.PHASE_GROUP, groupNanos);
+            loadEvent.end();
+            if(loadEvent.shouldCommit()){
+                loadEvent.files = files.size();
+                loadEvent.dumps = statistics.getDumps();
+                loadEvent.threads = statistics.getThreads();
+                loadEvent.parseNanos = statistics.getElapsedNanos();
+                loadEvent.groupNanos = groupNanos;
+                loadEvent.commit();
+            }
+        });
+    }
+    
+    /**
+     * Encode call stacks of the thread dump, and register it to FrameStore.
+     * It is called from parser threads concurrently.
+     */
+    private static void store(FrameStore target, ThreadDump dump){
+        var table = target.getFrameTable();
+        dump.getThreads().forEach(t -> t.encode(table));
+        target.register(dump);
+    }
+    
+    /**
+     * Close FrameStore which is replaced with new one after analyses of
+     * the previous runs are terminated. Views have to be rebuilt before
+     * calling this method.
+     */
+    private static void retireFrameStore(FrameStore oldStore, List<AnalysisScheduler.Run> oldRuns){
+        if(oldStore == null){
+            return;
+        }
+        CompletableFuture.allOf(oldRuns.stream().map(AnalysisScheduler.Run::getTermination).toArray(CompletableFuture[]::new))
+                         .whenComplete((v, e) -> closeFrameStore(oldStore));
+    }
+    
+    private static void closeFrameStore(FrameStore target){
+        try{
+            target.close();
+        }
+        catch(IOException e){
+            // Temporary file would be removed at exit.
+        }
+    }
+    
+    /**
+     * @return null if FrameStore cannot be created.
+     */
+    private FrameStore createFrameStore(){
+        try{
+            var budget = Long.getLong(FRAME_BUDGET_PROPERTY);
+            return new FrameStore((budget == null) ? Runtime.getRuntime().maxMemory() / 4 : budget * 1024 * 1024, new FrameTable());
+        }
+        catch(IOException e){
+            var alert = new Alert(Alert.AlertType.ERROR);
+            alert.initOwner(stage);
+            alert.setHeaderText("Cannot create frame store");
+            alert.setContentText(e.toString());
+            alert.show();
+            return null;
+        }
+    }
+    
+    /**
+     * @return null if the text is empty.
+     */
+    private static LocalDateTime parseTime(String text){
+        text = text.strip();
+        return text.isEmpty() ? null : LocalDateTime.parse(text.replace(' ', 'T'));
+    }
+    
+    /**
+     * Build views from loaded thread dumps with current sampling strategy.
+     * Analyses for each JVM run concurrently, and their results are shown
+     * as each of them is finished.
+     *
+     * @return future which is completed with time for grouping and analyzing threads in nanoseconds.
+     */
+    private CompletableFuture<Long> updateViews(){
+        long groupStart = System.nanoTime();
+        var downsampler = new Downsampler(samplingStrategy.getValue(), samplingInterval.getValue());
+        
+        // Views are rebuilt every second while capturing, so only the latest
+        // thread dumps are analyzed to keep the cost of each refresh bounded.
+        // All of them are analyzed once the capture is stopped.
+        var targets = dumps;
+        if(sampler != null){
+            int history = Math.max(1, Integer.getInteger(CAPTURE_HISTORY_PROPERTY, DEFAULT_CAPTURE_HISTORY));
+            targets = dumps.subList(Math.max(0, dumps.size() - history), dumps.size());
+        }
+        
+        // Thread dumps are reduced before building nid index and table columns.
+        dumpsBySource = targets.stream()
+                             .collect(Collectors.groupingBy(ThreadDump::getSource, LinkedHashMap::new, Collectors.toList()));
+        dumpsBySource.replaceAll((k, v) -> downsampler.apply(v));
+        int shownDumps = dumpsBySource.values().stream().mapToInt(List::size).sum();
         
         timeseriesTable.getItems().clear();
-        timeseriesTable.getColumns()
-                       .clear();
-        timeseriesTable.getColumns()
-                       .addAll(dumps.stream()
-                                    .map(d -> new TimedTableColumn(d.getTime()))
-                                    .collect(Collectors.toList()));
-        
-        var nidMap = dumps.stream()
-                          .flatMap(d -> d.getThreads().stream())
-                          .sorted(Comparator.comparing(ThreadInfo::getTime))
-                          .collect(Collectors.groupingBy(ThreadInfo::getNid));
-        
-        for(var info : nidMap.values()){
-            var maxStacks = info.stream()
-                                .mapToInt(t -> t.getCallFrames().size())
-                                .max()
-                                .getAsInt();
+        setTimedTableColumns(dumpsBySource.keySet().stream().findFirst().orElse(null));
+        
+        // Results of previous analyses are no longer needed.
+        runs.forEach(AnalysisScheduler.Run::cancel);
+        List<AnalysisScheduler.Run> currentRuns = new ArrayList<>();
+        runs = currentRuns;
+        
+        List<SourceSummaryForView> summaries = new ArrayList<>();
+        dumpsBySource.forEach((source, sourceDumps) -> {
+            var summary = new SourceSummaryForView(source, sourceDumps);
+            var run = getScheduler().submit(source, sourceDumps);
+            summaries.add(summary);
+            currentRuns.add(run);
             
-            for(var thread : info){
-                while(thread.getCallFrames().size() != maxStacks){
-                    thread.getCallFrames().addFirst(null);
-                }
+            CompletableFuture.allOf(run.get(ThreadAnalyses.STACK_DIFFS), run.get(ThreadAnalyses.USAGES), run.get(ThreadAnalyses.LOCKS))
+               .thenApply(x -> buildThreadViews(run.get(ThreadAnalyses.THREADS).join(), run.get(ThreadAnalyses.STACK_DIFFS).join(), run.get(ThreadAnalyses.USAGES).join(), run.get(ThreadAnalyses.LOCKS).join()))
+               .thenAcceptAsync(v -> publish(run, summary, true, () -> summary.setThreads(v)), Platform::runLater);
+            run.get(ThreadAnalyses.CHURN)
+               .thenAcceptAsync(c -> publish(run, summary, false, () -> summary.setChurn(c)), Platform::runLater);
+            run.get(ThreadAnalyses.SMR_MISMATCHES)
+               .thenAcceptAsync(m -> publish(run, summary, false, () -> summary.setSMRMismatches(m)), Platform::runLater);
+        });
+        
+        ObservableList<SourceSummaryForView> sources = FXCollections.observableArrayList();
+        if(summaries.size() != 1){
+            sources.add(new SourceSummaryForView(summaries));
+        }
+        sources.addAll(summaries);
+        
+        // Keep current selection (e.g. while live capture)
+        var selectedSource = sourceList.getSelectionModel().getSelectedItem();
+        setSources(sources, (selectedSource == null) ? null : selectedSource.getSource());
+        
+        statusBar.setText(loadSummary + ", analyzing...");
+        return CompletableFuture.allOf(currentRuns.stream().map(AnalysisScheduler.Run::getCompletion).toArray(CompletableFuture[]::new))
+                                .handleAsync((v, e) -> {
+                                    long groupNanos = System.nanoTime() - groupStart;
+                                    if(runs != currentRuns){
+                                        // Views have been rebuilt.
+                                        return groupNanos;
+                                    }
+                                    
+                                    if(e != null){
+                                        var alert = new Alert(Alert.AlertType.ERROR);
+                                        alert.initOwner(stage);
+                                        alert.setHeaderText("Analysis failed");
+                                        alert.setContentText(e.getCause().toString());
+                                        alert.show();
+                                    }
+                                    
+                                    // JVMs which have more stuck and contended threads are listed at upper side.
+                                    summaries.sort(Comparator.comparingLong((SourceSummaryForView x) -> x.getStuck() + x.getContended()).reversed());
+                                    var sorted = FXCollections.observableArrayList(sources.subList(0, sources.size() - summaries.size()));
+                                    sorted.addAll(summaries);
+                                    var selected = sourceList.getSelectionModel().getSelectedItem();
+                                    setSources(sorted, (selected == null) ? null : selected.getSource());
+                                    
+                                    statusBar.setText(loadSummary + String.format(", analysis: %d ms", groupNanos / 1_000_000) +
+                                                      ((shownDumps < dumps.size()) ? String.format(", shown dumps: %d/%d", shownDumps, dumps.size()) : "") +
+                                                      ((frameStore.getStoredBytes() > 0) ? String.format(", paged out frames: %.1f MB", frameStore.getStoredBytes() / 1024.0d / 1024.0d) : ""));
+                                    return groupNanos;
+                                }, Platform::runLater);
+    }
+    
+    /**
+     * Set JVM list, and select the source. "All" (or the first one) is selected if it is not found.
+     */
+    private void setSources(ObservableList<SourceSummaryForView> sources, DumpSource selected){
+        if(threadList.getSelectionModel().getSelectedItem() != null){
+            pendingThread = threadList.getSelectionModel().getSelectedItem();
+        }
+        
+        sourceList.setItems(sources);
+        sources.stream()
+               .filter(v -> (selected != null) && Objects.equals(v.getSource(), selected))
+               .findFirst()
+               .ifPresentOrElse(v -> sourceList.getSelectionModel().select(v), () -> sourceList.getSelectionModel().selectFirst());
+    }
+    
+    /**
+     * Apply the result of the analysis to the view on FX application thread.
+     */
+    private void publish(AnalysisScheduler.Run run, SourceSummaryForView summary, boolean threadsChanged, Runnable update){
+        if(run.isCancelled()){
+            return;
+        }
+        
+        update.run();
+        sourceList.refresh();
+        
+        var selected = sourceList.getSelectionModel().getSelectedItem();
+        if(threadsChanged && (selected != null) && ((selected == summary) || (selected.getSource() == null))){
+            if(threadList.getSelectionModel().getSelectedItem() != null){
+                pendingThread = threadList.getSelectionModel().getSelectedItem();
             }
+            onSourceChanged(null, null, selected);
+        }
+    }
+    
+    @FXML
+    private void onCaptureStartClicked(ActionEvent event) {
+        var pid = new TextField();
+        pid.setPromptText("this process");
+        var interval = new TextField("1000");
+        var grid = new GridPane();
+        grid.setHgap(10.0d);
+        grid.setVgap(10.0d);
+        grid.addRow(0, new Label("PID"), pid);
+        grid.addRow(1, new Label("Interval (ms)"), interval);
+        
+        var dialog = new Dialog<ButtonType>();
+        dialog.initOwner(stage);
+        dialog.setTitle("Live capture");
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        if(dialog.showAndWait().filter(b -> b == ButtonType.OK).isEmpty()){
+            return;
+        }
+        
+        var newStore = createFrameStore();
+        if(newStore == null){
+            return;
+        }
+        
+        stopCapture();
+        try{
+            long intervalMillis = Long.parseLong(interval.getText().strip());
+            sampler = pid.getText().isBlank() ? LiveSampler.self() : LiveSampler.attach(Long.parseLong(pid.getText().strip()));
+            loadSummary = "Capturing " + sampler.getSource() + " every " + intervalMillis + " ms";
+            dumps = new ArrayList<>();
+            lastRefreshNanos = 0;
             
+            // Clear views which refer previous thread dumps, then discard previous FrameStore.
+            var oldStore = frameStore;
+            var oldRuns = runs;
+            frameStore = newStore;
+            updateViews();
+            retireFrameStore(oldStore, oldRuns);
+            
+            // Views are rebuilt at most once per second even if the interval is shorter.
+            // Thread dumps from the previous capture are dropped if they are queued
+            // after other thread dumps are opened or another capture is started.
+            var current = sampler;
+            current.start(intervalMillis, d -> {
+                store(newStore, d);
+                Platform.runLater(() -> {
+                    if(sampler != current){
+                        return;
+                    }
+                    dumps.add(d);
+                    if(System.nanoTime() - lastRefreshNanos >= 1_000_000_000L){
+                        lastRefreshNanos = System.nanoTime();
+                        updateViews();
+                    }
+                });
+            }, e -> Platform.runLater(() -> onCaptureFailed(current, e)));
+        }
+        catch(IOException | RuntimeException e){
+            stopCapture();
+            if(frameStore != newStore){
+                // Previous views are still shown.
+                closeFrameStore(newStore);
+            }
+            var alert = new Alert(Alert.AlertType.ERROR);
+            alert.initOwner(stage);
+            alert.setHeaderText("Cannot start live capture");
+            alert.setContentText(e.toString());
+            alert.show();
+        }
+    }
+    
+    @FXML
+    private void onCaptureStopClicked(ActionEvent event) {
+        if(sampler == null){
+            return;
         }
         
-        threadList.setItems(nidMap.entrySet()
-                                  .stream()
-                                  .map(e -> new ThreadInfoForView(e.getKey(), e.getValue()))
-                                  .sorted(Comparator.comparing(ThreadInfoForView::getNid))
-                                  .collect(FXCollections::observableArrayList, List::add, List::addAll));
-        onRadioButtonChanged(null, null, null);
+        var source = sampler.getSource();
+        stopCapture();
+        loadSummary = dumps.size() + " dumps are captured from " + source;
+        
+        // Apply thread dumps which are captured after the last refresh.
+        Platform.runLater(this::updateViews);
+    }
+    
+    private void onCaptureFailed(LiveSampler failed, RuntimeException e){
+        if(sampler != failed){
+            return;
+        }
+        
+        var source = sampler.getSource();
+        stopCapture();
+        loadSummary = dumps.size() + " dumps are captured from " + source + " until failure";
+        updateViews();
+        
+        var alert = new Alert(Alert.AlertType.ERROR);
+        alert.initOwner(stage);
+        alert.setHeaderText("Live capture is stopped");
+        alert.setContentText(e.toString());
+        alert.show();
+    }
+    
+    private void stopCapture(){
+        if(sampler == null){
+            return;
+        }
+        
+        try{
+            sampler.close();
+        }
+        catch(IOException e){
+            // Connection to the target might be already lost.
+        }
+        sampler = null;
+    }
+    
+    private void showDiagnostics(){
+        var diagnostics = dumps.stream()
+                               .flatMap(d -> d.getDiagnostics().stream().map(p -> d.getTime() + " " + p))
+                               .collect(Collectors.toList());
+        if(diagnostics.isEmpty()){
+            return;
+        }
+        
+        var alert = new Alert(Alert.AlertType.WARNING);
+        alert.initOwner(stage);
+        alert.setHeaderText(diagnostics.size() + " problem(s) were found in thread dumps");
+        alert.setContentText(diagnostics.stream()
+                                        .limit(MAX_DIAGNOSTICS_IN_ALERT)
+                                        .collect(Collectors.joining("\n")));
+        alert.show();
+    }
+    
+    private void setTimedTableColumns(DumpSource source){
+        columnSource = source;
+        timeseriesTable.getColumns()
+                       .clear();
+        
+        if(source == null){
+            return;
+        }
+        
+        timeseriesTable.getColumns()
+                       .addAll(dumpsBySource.get(source)
+                                            .stream()
+                                            .map(d -> new TimedTableColumn(d.getTime()))
+                                            .collect(Collectors.toList()));
+    }
+    
+    private static List<ThreadInfoForView> buildThreadViews(List<List<ThreadInfo>> threads, List<StackDiff> stackDiffs, List<ThreadAnalyses.Usage> usages, LockAttribution locks){
+        List<ThreadInfoForView> result = new ArrayList<>(threads.size());
+        for(int i = 0; i < threads.size(); i++){
+            result.add(new ThreadInfoForView(threads.get(i), stackDiffs.get(i), usages.get(i), locks));
+        }
+        return result;
     }
     
     @FXML
     private void onCloseClicked(ActionEvent event) {
+        stopCapture();
+        if(scheduler != null){
+            scheduler.close();
+        }
+        if(frameStore != null){
+            closeFrameStore(frameStore);
+        }
         Platform.exit();
     }
     
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper;
+
+import javafx.application.Application;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+/**
+ * GUI of ThreadDumper.
+ *
+ * It is separated from {@link Bootstrap} because the java launcher starts
+ * JavaFX toolkit before main() if the main class extends Application.
+ * Commands without GUI do not need to wait for it.
+ *
+ * @author yasuenag
+ */
+public class ThreadDumperApplication extends Application {
+
+    @Override
+    public void start(Stage stage) throws Exception {
+        var loader = new FXMLLoader(ThreadDumperApplication.class.getResource("/fxml/main.fxml"));
+        Parent root = loader.load();
+        
+        Scene scene = new Scene(root);
+        ((MainController)loader.getController()).setStage(stage);
+        
+        stage.setTitle("ThreadDumper");
+        stage.setScene(scene);
+        stage.show();
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Analysis of thread dumps from one JVM. It is run by
+ * {@link AnalysisScheduler} after all of its dependencies are finished.
+ * Thread dumps must not be modified in analyze() because other analyses
+ * might read them concurrently.
+ *
+ * @param <T> type of the result.
+ * @author yasuenag
+ */
+public interface Analysis<T>{
+
+    public String getName();
+
+    /**
+     * @return analyses whose results are used in analyze().
+     */
+    public default List<Analysis<?>> getDependencies(){
+        return List.of();
+    }
+
+    /**
+     * @return result of this analysis. It must not be null.
+     */
+    public T analyze(AnalysisContext context);
+
+    public static <T> Analysis<T> of(String name, Function<AnalysisContext, T> function, Analysis<?>... dependencies){
+        var dependencyList = List.of(dependencies);
+        return new Analysis<T>(){
+
+            @Override
+            public String getName(){
+                return name;
+            }
+
+            @Override
+            public List<Analysis<?>> getDependencies(){
+                return dependencyList;
+            }
+
+            @Override
+            public T analyze(AnalysisContext context){
+                return function.apply(context);
+            }
+
+            @Override
+            public String toString(){
+                return name;
+            }
+
+        };
+    }
+
+}
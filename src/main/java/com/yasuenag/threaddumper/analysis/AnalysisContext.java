@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Input of {@link Analysis}: thread dumps from one JVM and results of
+ * finished analyses.
+ *
+ * @author yasuenag
+ */
+public class AnalysisContext{
+
+    private final DumpSource source;
+
+    private final List<ThreadDump> dumps;
+
+    private final Map<Analysis<?>, Object> results;
+
+    AnalysisContext(DumpSource source, List<ThreadDump> dumps){
+        this.source = source;
+        this.dumps = dumps;
+        this.results = new ConcurrentHashMap<>();
+    }
+
+    public DumpSource getSource(){
+        return source;
+    }
+
+    /**
+     * @return thread dumps sorted by time.
+     */
+    public List<ThreadDump> getDumps(){
+        return dumps;
+    }
+
+    void putResult(Analysis<?> analysis, Object result){
+        results.put(analysis, result);
+    }
+
+    /**
+     * @return result of the analysis. It should be a dependency of the caller.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getResult(Analysis<T> analysis){
+        var result = results.get(analysis);
+        if(result == null){
+            throw new IllegalStateException(analysis.getName() + " is not finished");
+        }
+        return (T)result;
+    }
+
+}
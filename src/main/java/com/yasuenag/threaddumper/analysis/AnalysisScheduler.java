@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler which runs registered analyses concurrently on work-stealing
+ * pool. Each analysis starts when all of its dependencies are finished, so
+ * independent analyses (and analyses for other JVMs) run in parallel.
+ * Parallel streams in analyses also run on this pool.
+ *
+ * @author yasuenag
+ */
+public class AnalysisScheduler implements AutoCloseable{
+
+    /**
+     * Analyses for thread dumps of one JVM.
+     */
+    public static class Run{
+
+        private final AnalysisContext context;
+
+        private final Map<Analysis<?>, CompletableFuture<?>> futures;
+
+        private CompletableFuture<Void> completion;
+
+        private final CompletableFuture<Void> termination;
+
+        private volatile boolean cancelled;
+
+        // number of analyses which are running; guarded by this
+        private int running;
+
+        private Run(AnalysisContext context){
+            this.context = context;
+            this.futures = new IdentityHashMap<>();
+            this.termination = new CompletableFuture<>();
+            this.cancelled = false;
+            this.running = 0;
+        }
+
+        public DumpSource getSource(){
+            return context.getSource();
+        }
+
+        /**
+         * @return future which is completed with the result of the analysis.
+         */
+        @SuppressWarnings("unchecked")
+        public <T> CompletableFuture<T> get(Analysis<T> analysis){
+            var future = futures.get(analysis);
+            if(future == null){
+                throw new IllegalArgumentException(analysis.getName() + " is not registered");
+            }
+            return (CompletableFuture<T>)future;
+        }
+
+        /**
+         * @return future which is completed when all analyses are finished.
+         */
+        public CompletableFuture<Void> getCompletion(){
+            return completion;
+        }
+
+        /**
+         * @return future which is completed when no analysis of this run is
+         *         running. Unlike {@link #getCompletion()}, it waits for
+         *         analyses which have been started before cancellation.
+         */
+        public CompletableFuture<Void> getTermination(){
+            return termination;
+        }
+
+        /**
+         * Cancel analyses which are not started yet.
+         */
+        public void cancel(){
+            synchronized(this){
+                cancelled = true;
+                tryTerminate();
+            }
+            futures.values().forEach(f -> f.cancel(false));
+        }
+
+        private synchronized void enter(){
+            if(cancelled){
+                throw new CancellationException();
+            }
+            running++;
+        }
+
+        private synchronized void exit(){
+            running--;
+            tryTerminate();
+        }
+
+        private synchronized void tryTerminate(){
+            if((running == 0) && (cancelled || ((completion != null) && completion.isDone()))){
+                termination.complete(null);
+            }
+        }
+
+        public boolean isCancelled(){
+            return cancelled;
+        }
+
+    }
+
+    private final ExecutorService pool;
+
+    private final List<Analysis<?>> analyses;
+
+    public AnalysisScheduler(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public AnalysisScheduler(int parallelism){
+        this.pool = Executors.newWorkStealingPool(parallelism);
+        this.analyses = new ArrayList<>();
+    }
+
+    /**
+     * Register the analysis. Its dependencies must be registered before,
+     * so dependencies never make a cycle.
+     */
+    public synchronized void register(Analysis<?> analysis){
+        if(analyses.stream().anyMatch(a -> a.getName().equals(analysis.getName()))){
+            throw new IllegalArgumentException(analysis.getName() + " is already registered");
+        }
+        for(var dependency : analysis.getDependencies()){
+            if(!analyses.contains(dependency)){
+                throw new IllegalArgumentException(dependency.getName() + " (dependency of " + analysis.getName() + ") is not registered");
+            }
+        }
+        analyses.add(analysis);
+    }
+
+    public synchronized List<Analysis<?>> getAnalyses(){
+        return Collections.unmodifiableList(new ArrayList<>(analyses));
+    }
+
+    /**
+     * Start all registered analyses for thread dumps from one JVM.
+     * If an analysis fails, analyses which depend on it fail with the same exception.
+     *
+     * @param dumps thread dumps from the source. They are sorted by time.
+     */
+    public Run submit(DumpSource source, List<ThreadDump> dumps){
+        var sorted = new ArrayList<>(dumps);
+        sorted.sort(Comparator.comparing(ThreadDump::getTime));
+        var context = new AnalysisContext(source, Collections.unmodifiableList(sorted));
+
+        var run = new Run(context);
+        for(var analysis : getAnalyses()){
+            var dependencies = analysis.getDependencies()
+                                       .stream()
+                                       .map(run.futures::get)
+                                       .toArray(CompletableFuture[]::new);
+            run.futures.put(analysis, CompletableFuture.allOf(dependencies)
+                                                       .thenApplyAsync(v -> analyze(run, analysis), pool));
+        }
+        run.completion = CompletableFuture.allOf(run.futures.values().toArray(CompletableFuture[]::new));
+        run.completion.whenComplete((v, e) -> run.tryTerminate());
+
+        return run;
+    }
+
+    private static Object analyze(Run run, Analysis<?> analysis){
+        run.enter();
+        try{
+            var result = Objects.requireNonNull(analysis.analyze(run.context), analysis.getName() + " returns null");
+            run.context.putResult(analysis, result);
+            return result;
+        }
+        finally{
+            run.exit();
+        }
+    }
+
+    @Override
+    public void close(){
+        pool.shutdownNow();
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reduce the number of thread dumps from one JVM before building views.
+ * The first and the last thread dumps are always kept.
+ *
+ * @author yasuenag
+ */
+public class Downsampler {
+
+    public static enum Strategy{
+        /** Keep all thread dumps. */
+        ALL("All"),
+        /** Keep every Nth thread dump. */
+        EVERY_NTH("Every Nth"),
+        /** Keep thread dumps where threads are created, exited or changed their state. */
+        CHANGE_POINT("Change points"),
+        /** Keep thread dumps where a call stack of any thread is changed. */
+        STACK_CHANGE("Stack changes");
+
+        private final String label;
+
+        private Strategy(String label){
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final Strategy strategy;
+
+    private final int interval;
+
+    /**
+     * @param interval N for {@link Strategy#EVERY_NTH}. It is ignored in other strategies.
+     */
+    public Downsampler(Strategy strategy, int interval){
+        if(interval < 1){
+            throw new IllegalArgumentException("Interval should be greater than 0: " + interval);
+        }
+
+        this.strategy = strategy;
+        this.interval = interval;
+    }
+
+    public Strategy getStrategy(){
+        return strategy;
+    }
+
+    public int getInterval(){
+        return interval;
+    }
+
+    /**
+     * Order independent hash of values of all threads in the thread dump.
+     */
+    private static long signature(ThreadDump dump, ToLongFunction<ThreadInfo> value){
+        long result = 0;
+        for(var thread : dump.getThreads()){
+            long h = thread.getNid() * 0x9e3779b97f4a7c15L + value.applyAsLong(thread);
+            h ^= (h >>> 33);
+            h *= 0xff51afd7ed558ccdL;
+            h ^= (h >>> 33);
+            result += h;
+        }
+        return result;
+    }
+
+    /**
+     * @param dumps thread dumps from one JVM.
+     * @return thread dumps which are kept in order of time.
+     */
+    public List<ThreadDump> apply(List<ThreadDump> dumps){
+        var sorted = new ArrayList<>(dumps);
+        sorted.sort(Comparator.comparing(ThreadDump::getTime));
+
+        if((strategy == Strategy.ALL) || (sorted.size() <= 2)){
+            return sorted;
+        }
+
+        ToLongFunction<ThreadInfo> value = switch(strategy){
+            case CHANGE_POINT -> t -> t.getThreadState().map(s -> s.ordinal() + 1).orElse(0);
+            case STACK_CHANGE -> t -> StackDiff.fingerprint(t);
+            default -> null;
+        };
+
+        List<ThreadDump> result = new ArrayList<>();
+        result.add(sorted.get(0));
+        long prevSignature = (value == null) ? 0 : signature(sorted.get(0), value);
+        int lastIndex = sorted.size() - 1;
+
+        for(int i = 1; i < lastIndex; i++){
+            var dump = sorted.get(i);
+
+            if(value == null){
+                if((i % interval) == 0){
+                    result.add(dump);
+                }
+            }
+            else{
+                long signature = signature(dump, value);
+                if(signature != prevSignature){
+                    result.add(dump);
+                }
+                prevSignature = signature;
+            }
+
+        }
+
+        result.add(sorted.get(lastIndex));
+        return result;
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.LongObjectMap;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Attribution of monitors which blocked threads are waiting to lock to the
+ * threads which hold them.
+ *
+ * Hold duration is the time since the first of consecutive thread dumps in
+ * which the owner holds the monitor, so it is the lower bound of the actual
+ * one. Wait chains are shared between waiters on the same monitor, so they
+ * are computed in linear time even if there are a lot of waiters.
+ *
+ * @author yasuenag
+ */
+public class LockAttribution {
+
+    // Element of the wait chain. next is the owner of the monitor which thread is waiting for.
+    private static class Node{
+
+        private final ThreadInfo thread;
+
+        private Node next;
+
+        private boolean deadlocked;
+
+        private Node(ThreadInfo thread){
+            this.thread = thread;
+        }
+
+    }
+
+    public static class Wait{
+
+        private final ThreadInfo waiter;
+
+        private final ThreadInfo.LockInfo lock;
+
+        private final LocalDateTime heldSince;
+
+        private final Node node;
+
+        private Wait(ThreadInfo waiter, ThreadInfo.LockInfo lock, LocalDateTime heldSince, Node node){
+            this.waiter = waiter;
+            this.lock = lock;
+            this.heldSince = heldSince;
+            this.node = node;
+        }
+
+        public ThreadInfo getWaiter(){
+            return waiter;
+        }
+
+        public ThreadInfo.LockInfo getLock(){
+            return lock;
+        }
+
+        /**
+         * @return the thread which holds the monitor. It is empty if the owner is not in the thread dump.
+         */
+        public Optional<ThreadInfo> getOwner(){
+            return Optional.ofNullable(node.next).map(n -> n.thread);
+        }
+
+        /**
+         * @return time of the first of consecutive thread dumps in which the owner holds the monitor.
+         */
+        public Optional<LocalDateTime> getHeldSince(){
+            return Optional.ofNullable(heldSince);
+        }
+
+        public Optional<Duration> getHoldDuration(){
+            return getHeldSince().map(t -> Duration.between(t, waiter.getTime()));
+        }
+
+        /**
+         * @return the owner, the owner of the monitor which the owner is waiting for, and so on.
+         *         It ends at the first thread which appears twice if the threads are deadlocked.
+         */
+        public List<ThreadInfo> getChain(){
+            List<ThreadInfo> result = new ArrayList<>();
+            Set<ThreadInfo> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            for(var n = node.next; (n != null) && visited.add(n.thread); n = n.next){
+                result.add(n.thread);
+            }
+            return result;
+        }
+
+        /**
+         * @return true if the wait chain has a cycle.
+         */
+        public boolean isDeadlocked(){
+            return node.deadlocked;
+        }
+
+    }
+
+    private final Map<ThreadInfo, Wait> waits;
+
+    private LockAttribution(Map<ThreadInfo, Wait> waits){
+        this.waits = waits;
+    }
+
+    /**
+     * @return true if the thread is blocked to enter the monitor.
+     */
+    private static boolean isWaitingToLock(ThreadInfo.LockInfo lock){
+        // "waiting to lock" and "waiting to re-lock in wait()"
+        return lock.getDescription().startsWith("waiting to ");
+    }
+
+    /**
+     * @param dumps thread dumps from one JVM sorted by time.
+     */
+    public static LockAttribution compute(List<ThreadDump> dumps){
+        Map<ThreadInfo, Wait> waits = new IdentityHashMap<>();
+
+        // Owner and the first time of the monitor in the previous thread dump
+        var prevOwners = new LongObjectMap<ThreadInfo>();
+        var prevSince = new LongObjectMap<LocalDateTime>();
+
+        for(var dump : dumps){
+            var owners = dump.getLockOwners();
+            var since = new LongObjectMap<LocalDateTime>(owners.size());
+            var lastOwners = prevOwners;
+            var lastSince = prevSince;
+            owners.forEach((address, owner) -> {
+                var lastOwner = lastOwners.get(address);
+                since.put(address, ((lastOwner != null) && (lastOwner.getNid() == owner.getNid())) ? lastSince.get(address) : dump.getTime());
+            });
+
+            // Monitor which each thread is waiting for
+            Map<ThreadInfo, ThreadInfo.LockInfo> waiting = new IdentityHashMap<>();
+            for(var thread : dump.getThreads()){
+                thread.getLocks()
+                      .stream()
+                      .filter(LockAttribution::isWaitingToLock)
+                      .findFirst()
+                      .ifPresent(l -> waiting.put(thread, l));
+            }
+
+            Map<ThreadInfo, Node> nodes = new IdentityHashMap<>();
+            waiting.forEach((thread, lock) -> {
+                var node = resolve(thread, waiting, owners, nodes);
+                waits.put(thread, new Wait(thread, lock, since.get(lock.getAddress()), node));
+            });
+
+            prevOwners = owners;
+            prevSince = since;
+        }
+
+        return new LockAttribution(waits);
+    }
+
+    /**
+     * Build the wait chain from the thread. Nodes which have been built are
+     * reused, so each thread is visited only once in a thread dump.
+     */
+    private static Node resolve(ThreadInfo start, Map<ThreadInfo, ThreadInfo.LockInfo> waiting, LongObjectMap<ThreadInfo> owners, Map<ThreadInfo, Node> nodes){
+        List<Node> path = new ArrayList<>();
+        Map<ThreadInfo, Integer> onPath = new IdentityHashMap<>();
+        Node tail = null;
+
+        var thread = start;
+        while(thread != null){
+            tail = nodes.get(thread);
+            if(tail != null){
+                break;
+            }
+
+            var index = onPath.get(thread);
+            if(index != null){
+                // Deadlock: threads from index make a cycle.
+                var cycle = path.subList(index, path.size());
+                for(int i = 0; i < cycle.size(); i++){
+                    var node = cycle.get(i);
+                    node.next = cycle.get((i + 1) % cycle.size());
+                    node.deadlocked = true;
+                    nodes.put(node.thread, node);
+                }
+                tail = cycle.get(0);
+                cycle.clear();
+                break;
+            }
+
+            onPath.put(thread, path.size());
+            path.add(new Node(thread));
+            var lock = waiting.get(thread);
+            thread = (lock == null) ? null : owners.get(lock.getAddress());
+        }
+
+        for(int i = path.size() - 1; i >= 0; i--){
+            var node = path.get(i);
+            node.next = tail;
+            node.deadlocked = (tail != null) && tail.deadlocked;
+            nodes.put(node.thread, node);
+            tail = node;
+        }
+
+        return nodes.get(start);
+    }
+
+    /**
+     * @return the monitor which the thread is waiting to lock, and its owner.
+     */
+    public Optional<Wait> getWait(ThreadInfo thread){
+        return Optional.ofNullable(waits.get(thread));
+    }
+
+    /**
+     * @return number of blocked threads in all thread dumps.
+     */
+    public int size(){
+        return waits.size();
+    }
+
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.EncodedStack;
+import com.yasuenag.threaddumper.parser.LongObjectMap;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Differences of call stacks between consecutive snapshots of one thread.
+ *
+ * Stacks are compared from the bottom (outermost frame) because the bottom
+ * of the stack is stable while the thread works. Null frames (padding) are
+ * treated as the end of the stack. Encoded stacks are compared on the
+ * encoded bytes without decoding.
+ *
+ * @author yasuenag
+ */
+public class StackDiff {
+
+    public static enum Progress{
+        /** Only one snapshot is available. */
+        UNKNOWN,
+        /** Call stack has been changed from the previous snapshot. */
+        PROGRESSING,
+        /** Call stack has been changed, but it came back to the stack seen before. */
+        OSCILLATING,
+        /** Call stack is same as the previous snapshot. */
+        STUCK
+    }
+
+    public static class Entry{
+
+        private final LocalDateTime time;
+
+        private final int depth;
+
+        private final int commonDepth;
+
+        private final long fingerprint;
+
+        public Entry(LocalDateTime time, int depth, int commonDepth, long fingerprint){
+            this.time = time;
+            this.depth = depth;
+            this.commonDepth = commonDepth;
+            this.fingerprint = fingerprint;
+        }
+
+        public LocalDateTime getTime(){
+            return time;
+        }
+
+        /**
+         * @return number of frames in this snapshot.
+         */
+        public int getDepth(){
+            return depth;
+        }
+
+        /**
+         * @return number of frames from the bottom which are same as the previous snapshot.
+         */
+        public int getCommonDepth(){
+            return commonDepth;
+        }
+
+        /**
+         * @return number of frames from the top which are different from the previous snapshot.
+         */
+        public int getChangedFrames(){
+            return depth - commonDepth;
+        }
+
+        public long getFingerprint(){
+            return fingerprint;
+        }
+
+        /**
+         * @param depthFromBottom 0-origin depth from the bottom of the stack.
+         * @return true if the frame at depthFromBottom is changed from the previous snapshot.
+         */
+        public boolean isChanged(int depthFromBottom){
+            return (depthFromBottom >= commonDepth) && (depthFromBottom < depth);
+        }
+
+    }
+
+    private final List<Entry> entries;
+
+    private final Map<LocalDateTime, Entry> entryMap;
+
+    private final Progress progress;
+
+    private final Optional<LocalDateTime> stuckSince;
+
+    private StackDiff(List<Entry> entries, Progress progress, Optional<LocalDateTime> stuckSince){
+        this.entries = Collections.unmodifiableList(entries);
+        this.entryMap = new HashMap<>();
+        this.progress = progress;
+        this.stuckSince = stuckSince;
+
+        entries.forEach(e -> entryMap.put(e.getTime(), e));
+    }
+
+    public List<Entry> getEntries(){
+        return entries;
+    }
+
+    public Optional<Entry> getEntry(LocalDateTime time){
+        return Optional.ofNullable(entryMap.get(time));
+    }
+
+    public Progress getProgress(){
+        return progress;
+    }
+
+    /**
+     * @return time of the first snapshot of the trailing same stacks if the thread is stuck.
+     */
+    public Optional<LocalDateTime> getStuckSince(){
+        return stuckSince;
+    }
+
+    /**
+     * Calculate fingerprint of the call stack. Same stacks have same fingerprint.
+     */
+    public static long fingerprint(List<ThreadInfo.CallFrame> frames){
+        long hash = 1125899906842597L;
+        var itr = frames.listIterator(frames.size());
+
+        while(itr.hasPrevious()){
+            var frame = itr.previous();
+            if(frame == null){
+                break;
+            }
+            hash = 31 * hash + frame.hashCode();
+        }
+
+        return hash;
+    }
+
+    /**
+     * Calculate fingerprint of the call stack of the thread. It uses encoded
+     * stack if available, so fingerprints are comparable only between threads
+     * which are encoded by the same FrameTable (or not encoded).
+     */
+    public static long fingerprint(ThreadInfo thread){
+        var encoded = thread.getEncodedStack();
+        return encoded.isPresent() ? encoded.get().fingerprint() : fingerprint(thread.getCallFrames());
+    }
+
+    private static int depthOf(List<ThreadInfo.CallFrame> frames){
+        int depth = 0;
+        var itr = frames.listIterator(frames.size());
+
+        while(itr.hasPrevious() && (itr.previous() != null)){
+            depth++;
+        }
+
+        return depth;
+    }
+
+    /**
+     * @return number of same frames from the bottom of both stacks.
+     */
+    public static int commonSuffix(List<ThreadInfo.CallFrame> prev, List<ThreadInfo.CallFrame> current){
+        int common = 0;
+        var prevItr = prev.listIterator(prev.size());
+        var currentItr = current.listIterator(current.size());
+
+        while(prevItr.hasPrevious() && currentItr.hasPrevious()){
+            var prevFrame = prevItr.previous();
+            var currentFrame = currentItr.previous();
+
+            if((prevFrame == null) || !Objects.equals(prevFrame, currentFrame)){
+                break;
+            }
+            common++;
+        }
+
+        return common;
+    }
+
+    private static boolean isComparable(Optional<EncodedStack> prev, Optional<EncodedStack> current){
+        return prev.isPresent() && current.isPresent() && (prev.get().getTable() == current.get().getTable());
+    }
+
+    /**
+     * @return true if the stack of the thread is same as one of candidates.
+     *         Candidates have same fingerprint, but it might be a collision.
+     */
+    private static boolean isSeen(List<ThreadInfo> candidates, ThreadInfo thread, Optional<EncodedStack> encoded){
+        if(candidates == null){
+            return false;
+        }
+
+        for(var candidate : candidates){
+            var candidateEncoded = candidate.getEncodedStack();
+            if(isComparable(candidateEncoded, encoded)){
+                if(candidateEncoded.get().equals(encoded.get())){
+                    return true;
+                }
+                continue;
+            }
+
+            var frames = thread.getCallFrames();
+            var candidateFrames = candidate.getCallFrames();
+            int depth = depthOf(frames);
+            if((depth == depthOf(candidateFrames)) && (commonSuffix(candidateFrames, frames) == depth)){
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Compare each snapshot with the previous one.
+     *
+     * @param threads snapshots of the thread sorted by time.
+     */
+    public static StackDiff compute(List<ThreadInfo> threads){
+        List<Entry> entries = new ArrayList<>(threads.size());
+        // Distinct stacks for each fingerprint
+        var seen = new LongObjectMap<List<ThreadInfo>>();
+        ThreadInfo prev = null;
+        Optional<EncodedStack> prevEncoded = Optional.empty();
+        long prevFingerprint = 0;
+        int prevDepth = 0;
+        LocalDateTime runStart = null;
+        boolean same = false;
+        boolean returned = false;
+
+        for(var thread : threads){
+            var encoded = thread.getEncodedStack();
+            List<ThreadInfo.CallFrame> frames = null;
+            long fingerprint;
+            int depth;
+            int commonDepth;
+
+            if(encoded.isPresent()){
+                fingerprint = encoded.get().fingerprint();
+                depth = encoded.get().getDepth();
+            }
+            else{
+                frames = thread.getCallFrames();
+                fingerprint = fingerprint(frames);
+                depth = depthOf(frames);
+            }
+
+            if(prev == null){
+                commonDepth = depth;
+            }
+            else if(isComparable(prevEncoded, encoded)){
+                commonDepth = prevEncoded.get().commonSuffix(encoded.get());
+            }
+            else{
+                commonDepth = commonSuffix(prev.getCallFrames(), (frames == null) ? thread.getCallFrames() : frames);
+            }
+            // Fingerprints might collide, so confirm it with the common depth.
+            same = (prev != null) && (fingerprint == prevFingerprint) && (depth == prevDepth) && (commonDepth == depth);
+
+            if(!same){
+                runStart = thread.getTime();
+                returned = (prev != null) && isSeen(seen.get(fingerprint), thread, encoded);
+                if(!returned){
+                    seen.computeIfAbsent(fingerprint, k -> new ArrayList<>(1)).add(thread);
+                }
+            }
+
+            entries.add(new Entry(thread.getTime(), depth, commonDepth, fingerprint));
+            prev = thread;
+            prevEncoded = encoded;
+            prevFingerprint = fingerprint;
+            prevDepth = depth;
+        }
+
+        Progress progress;
+        Optional<LocalDateTime> stuckSince = Optional.empty();
+        if(entries.size() < 2){
+            progress = Progress.UNKNOWN;
+        }
+        else if(same){
+            progress = Progress.STUCK;
+            stuckSince = Optional.of(runStart);
+        }
+        else if(returned){
+            progress = Progress.OSCILLATING;
+        }
+        else{
+            progress = Progress.PROGRESSING;
+        }
+
+        return new StackDiff(entries, progress, stuckSince);
+    }
+
+}
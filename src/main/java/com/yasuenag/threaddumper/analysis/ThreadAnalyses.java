@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.IntObjectMap;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import com.yasuenag.threaddumper.parser.ThreadInfoStore;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Standard analyses for the thread list.
+ *
+ * @author yasuenag
+ */
+public final class ThreadAnalyses{
+
+    /**
+     * Difference of resource usage between the first and the last snapshots of a thread.
+     */
+    public static class Usage{
+
+        private final double cpu;
+
+        private final long allocated;
+
+        public Usage(List<ThreadInfo> threads){
+            var top = threads.get(0);
+            var tail = threads.get(threads.size() - 1);
+
+            // Values are read from ThreadInfoStore of each thread dump directly
+            // to avoid Optional objects.
+            var topStore = top.getStore();
+            var tailStore = tail.getStore();
+            int topRow = top.getRow();
+            int tailRow = tail.getRow();
+            this.cpu = (topStore.isPresent(ThreadInfoStore.CPU, topRow) && tailStore.isPresent(ThreadInfoStore.CPU, tailRow)) ?
+                           (tailStore.getCpu(tailRow) - topStore.getCpu(topRow)) : -1.0d;
+            this.allocated = (topStore.isPresent(ThreadInfoStore.ALLOCATED, topRow) && tailStore.isPresent(ThreadInfoStore.ALLOCATED, tailRow)) ?
+                                 (tailStore.getAllocated(tailRow) - topStore.getAllocated(topRow)) : -1;
+        }
+
+        /**
+         * @return CPU time in ms, or negative value if it is not available.
+         */
+        public double getCpu(){
+            return cpu;
+        }
+
+        /**
+         * @return allocated bytes, or negative value if it is not available.
+         */
+        public long getAllocated(){
+            return allocated;
+        }
+
+    }
+
+    /**
+     * Snapshots of each thread grouped by nid. They are sorted by nid, and
+     * snapshots are sorted by time.
+     */
+    public static final Analysis<List<List<ThreadInfo>>> THREADS = Analysis.of("threads", ThreadAnalyses::groupByNid);
+
+    /**
+     * StackDiff of each thread in the same order as {@link #THREADS}.
+     */
+    public static final Analysis<List<StackDiff>> STACK_DIFFS = Analysis.of("stack diffs",
+                                                                            c -> c.getResult(THREADS)
+                                                                                  .parallelStream()
+                                                                                  .map(StackDiff::compute)
+                                                                                  .collect(Collectors.toList()),
+                                                                            THREADS);
+
+    /**
+     * Usage of each thread in the same order as {@link #THREADS}.
+     */
+    public static final Analysis<List<Usage>> USAGES = Analysis.of("usages",
+                                                                   c -> c.getResult(THREADS)
+                                                                         .stream()
+                                                                         .map(Usage::new)
+                                                                         .collect(Collectors.toList()),
+                                                                   THREADS);
+
+    /**
+     * Owners of monitors which blocked threads are waiting for.
+     */
+    public static final Analysis<LockAttribution> LOCKS = Analysis.of("locks", c -> LockAttribution.compute(c.getDumps()));
+
+    public static final Analysis<List<ThreadListCheck.Churn>> CHURN = Analysis.of("churn", c -> ThreadListCheck.churn(c.getDumps()));
+
+    /**
+     * Thread dumps which have SMR mismatches.
+     */
+    public static final Analysis<List<ThreadListCheck.Mismatch>> SMR_MISMATCHES = Analysis.of("SMR mismatches",
+                                                                                             c -> c.getDumps()
+                                                                                                   .stream()
+                                                                                                   .map(ThreadListCheck::check)
+                                                                                                   .filter(m -> !m.isEmpty())
+                                                                                                   .collect(Collectors.toList()));
+
+    private ThreadAnalyses(){
+    }
+
+    private static List<List<ThreadInfo>> groupByNid(AnalysisContext context){
+        var nidMap = new IntObjectMap<List<ThreadInfo>>();
+        context.getDumps()
+               .stream()
+               .flatMap(d -> d.getThreads().stream())
+               .forEachOrdered(t -> nidMap.computeIfAbsent(t.getNid(), k -> new ArrayList<>()).add(t));
+
+        var result = nidMap.values();
+        result.sort(Comparator.comparingInt(l -> l.get(0).getNid()));
+        return result;
+    }
+
+    /**
+     * Register all analyses in this class.
+     */
+    public static void registerTo(AnalysisScheduler scheduler){
+        scheduler.register(THREADS);
+        scheduler.register(STACK_DIFFS);
+        scheduler.register(USAGES);
+        scheduler.register(LOCKS);
+        scheduler.register(CHURN);
+        scheduler.register(SMR_MISMATCHES);
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.LongObjectMap;
+import com.yasuenag.threaddumper.parser.LongSet;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cross-check between threads in SMR info (_java_thread_list) and parsed
+ * threads, and thread churn between thread dumps. Threads are joined with
+ * SMR info by tid (address of JavaThread), and they are compared between
+ * thread dumps by thread ID.
+ *
+ * @author yasuenag
+ */
+public class ThreadListCheck {
+
+    public static class Mismatch{
+
+        private final LocalDateTime time;
+
+        private final long[] missingFromDump;
+
+        private final List<ThreadInfo> missingFromSMR;
+
+        public Mismatch(LocalDateTime time, long[] missingFromDump, List<ThreadInfo> missingFromSMR){
+            this.time = time;
+            this.missingFromDump = missingFromDump;
+            this.missingFromSMR = missingFromSMR;
+        }
+
+        public LocalDateTime getTime(){
+            return time;
+        }
+
+        /**
+         * @return addresses of JavaThread which are in SMR info, but not in the thread dump.
+         */
+        public long[] getMissingFromDump(){
+            return missingFromDump;
+        }
+
+        /**
+         * @return Java threads which are in the thread dump, but not in SMR info.
+         */
+        public List<ThreadInfo> getMissingFromSMR(){
+            return missingFromSMR;
+        }
+
+        public boolean isEmpty(){
+            return (missingFromDump.length == 0) && missingFromSMR.isEmpty();
+        }
+
+    }
+
+    public static class Churn{
+
+        private final LocalDateTime time;
+
+        private final List<ThreadInfo> created;
+
+        private final List<ThreadInfo> exited;
+
+        public Churn(LocalDateTime time, List<ThreadInfo> created, List<ThreadInfo> exited){
+            this.time = time;
+            this.created = created;
+            this.exited = exited;
+        }
+
+        public LocalDateTime getTime(){
+            return time;
+        }
+
+        /**
+         * @return threads which are in this thread dump, but not in the previous one.
+         */
+        public List<ThreadInfo> getCreated(){
+            return created;
+        }
+
+        /**
+         * @return threads which are in the previous thread dump, but not in this one.
+         */
+        public List<ThreadInfo> getExited(){
+            return exited;
+        }
+
+    }
+
+    /**
+     * Thread ID is used for churn because JavaThread may be allocated at the
+     * same address (tid) after the previous thread exits. VM internal threads
+     * do not have thread ID, so tid is used for them. JSON thread dump does
+     * not have tid, so thread ID (held as nid) is used instead.
+     * Thread IDs are small numbers, so they do not conflict with addresses.
+     */
+    private static long keyOf(ThreadInfo thread){
+        var id = thread.getId();
+        if(id.isPresent()){
+            return id.getAsInt();
+        }
+        return (thread.getTid() != 0) ? thread.getTid() : thread.getNid();
+    }
+
+    /**
+     * Only Java threads (which have thread ID) are listed in SMR info.
+     */
+    private static boolean isJavaThread(ThreadInfo thread){
+        return thread.getId().isPresent();
+    }
+
+    /**
+     * Check threads in SMR info and threads in the thread dump.
+     *
+     * @return empty Mismatch if the thread dump does not have SMR info.
+     */
+    public static Mismatch check(ThreadDump dump){
+        var smrInfo = dump.getSMRInfo();
+        if(smrInfo.isEmpty()){
+            return new Mismatch(dump.getTime(), new long[0], List.of());
+        }
+
+        var tids = new LongSet(dump.getThreads().size());
+        List<ThreadInfo> missingFromSMR = new ArrayList<>();
+        for(var thread : dump.getThreads()){
+            tids.add(thread.getTid());
+            if(isJavaThread(thread) && !smrInfo.get().contains(thread.getTid())){
+                missingFromSMR.add(thread);
+            }
+        }
+
+        var missingFromDump = new LongSet();
+        for(var javaThread : smrInfo.get().getJavaThreads()){
+            if(!tids.contains(javaThread)){
+                missingFromDump.add(javaThread);
+            }
+        }
+
+        return new Mismatch(dump.getTime(), missingFromDump.toArray(), missingFromSMR);
+    }
+
+    /**
+     * Calculate created and exited threads between consecutive thread dumps.
+     * All thread dumps should come from the same JVM.
+     *
+     * @return churn for each thread dump except the first one.
+     */
+    public static List<Churn> churn(List<ThreadDump> dumps){
+        var sorted = dumps.stream()
+                          .sorted(Comparator.comparing(ThreadDump::getTime))
+                          .toList();
+        List<Churn> result = new ArrayList<>();
+
+        LongObjectMap<ThreadInfo> prev = null;
+        for(var dump : sorted){
+            var current = new LongObjectMap<ThreadInfo>(dump.getThreads().size());
+            dump.getThreads().forEach(t -> current.put(keyOf(t), t));
+
+            if(prev != null){
+                List<ThreadInfo> created = new ArrayList<>();
+                List<ThreadInfo> exited = new ArrayList<>();
+                var p = prev;
+
+                current.forEach((key, t) -> {
+                    if(!p.containsKey(key)){
+                        created.add(t);
+                    }
+                });
+                prev.forEach((key, t) -> {
+                    if(!current.containsKey(key)){
+                        exited.add(t);
+                    }
+                });
+
+                result.add(new Churn(dump.getTime(), created, exited));
+            }
+
+            prev = current;
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.capture;
+
+import com.sun.tools.attach.AttachNotSupportedException;
+import com.sun.tools.attach.VirtualMachine;
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.io.IOException;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Capture thread dumps from live JVM via ThreadMXBean.
+ *
+ * Results of ThreadMXBean are converted to ThreadDump directly, so text
+ * formatting and parsing are not needed. ThreadMXBean does not provide
+ * native thread ID, so thread ID is used as nid like JSON thread dump.
+ * Identity hash code is used as the address of monitors.
+ *
+ * @author yasuenag
+ */
+public class LiveSampler implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_DEPTH = 1024;
+
+    private final ThreadMXBean threadMXBean;
+
+    private final com.sun.management.ThreadMXBean extThreadMXBean;
+
+    private final DumpSource source;
+
+    private final String vmVersion;
+
+    private final JMXConnector connector;
+
+    private final int maxDepth;
+
+    private ScheduledExecutorService scheduler;
+
+    private LiveSampler(ThreadMXBean threadMXBean, RuntimeMXBean runtimeMXBean, JMXConnector connector, int maxDepth){
+        this.threadMXBean = threadMXBean;
+        this.extThreadMXBean = (threadMXBean instanceof com.sun.management.ThreadMXBean ext) ? ext : null;
+        this.source = new DumpSource(Optional.empty(), OptionalLong.of(runtimeMXBean.getPid()));
+        this.vmVersion = runtimeMXBean.getVmName() + " (" + runtimeMXBean.getVmVersion() + ")";
+        this.connector = connector;
+        this.maxDepth = maxDepth;
+        this.scheduler = null;
+    }
+
+    /**
+     * @return sampler for this process.
+     */
+    public static LiveSampler self(){
+        return new LiveSampler(ManagementFactory.getThreadMXBean(), ManagementFactory.getRuntimeMXBean(), null, DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Attach to local JVM, and connect to its local management agent.
+     * The agent is started if it is not running.
+     */
+    public static LiveSampler attach(long pid) throws IOException{
+        String address;
+        try{
+            var vm = VirtualMachine.attach(Long.toString(pid));
+            try{
+                address = vm.startLocalManagementAgent();
+            }
+            finally{
+                vm.detach();
+            }
+        }
+        catch(AttachNotSupportedException e){
+            throw new IOException("Cannot attach to " + pid, e);
+        }
+
+        var connector = JMXConnectorFactory.connect(new JMXServiceURL(address));
+        try{
+            var connection = connector.getMBeanServerConnection();
+            ThreadMXBean threadMXBean;
+            try{
+                threadMXBean = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.THREAD_MXBEAN_NAME, com.sun.management.ThreadMXBean.class);
+            }
+            catch(IllegalArgumentException e){
+                // Not HotSpot
+                threadMXBean = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class);
+            }
+            var runtimeMXBean = ManagementFactory.newPlatformMXBeanProxy(connection, ManagementFactory.RUNTIME_MXBEAN_NAME, RuntimeMXBean.class);
+            return new LiveSampler(threadMXBean, runtimeMXBean, connector, DEFAULT_MAX_DEPTH);
+        }
+        catch(IOException | RuntimeException e){
+            connector.close();
+            throw e;
+        }
+    }
+
+    public DumpSource getSource(){
+        return source;
+    }
+
+    /**
+     * @param objectWait true if the thread waits on a monitor (not parking).
+     */
+    private static String describeState(Thread.State state, boolean objectWait){
+        return switch(state){
+            case NEW -> "new";
+            case RUNNABLE -> "runnable";
+            case BLOCKED -> "waiting for monitor entry";
+            case WAITING, TIMED_WAITING -> objectWait ? "in Object.wait()" : "waiting on condition";
+            case TERMINATED -> "terminated";
+        };
+    }
+
+    private static ThreadInfo.LockInfo convertLock(String description, LockInfo lock){
+        return new ThreadInfo.LockInfo(description, Integer.toUnsignedLong(lock.getIdentityHashCode()), lock.getClassName());
+    }
+
+    /**
+     * Take a snapshot of all threads.
+     */
+    public ThreadDump sample(){
+        var infos = threadMXBean.dumpAllThreads(threadMXBean.isObjectMonitorUsageSupported(), false, maxDepth);
+        var time = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        var ids = new long[infos.length];
+        for(int i = 0; i < infos.length; i++){
+            ids[i] = infos[i].getThreadId();
+        }
+        long[] cpuTimes = null;
+        long[] allocatedBytes = null;
+        if(extThreadMXBean != null){
+            if(extThreadMXBean.isThreadCpuTimeEnabled()){
+                cpuTimes = extThreadMXBean.getThreadCpuTime(ids);
+            }
+            if(extThreadMXBean.isThreadAllocatedMemoryEnabled()){
+                allocatedBytes = extThreadMXBean.getThreadAllocatedBytes(ids);
+            }
+        }
+
+        var dump = new ThreadDump(source, time);
+        dump.setVmVersion(vmVersion);
+        var store = dump.getThreadInfoStore();
+
+        for(int i = 0; i < infos.length; i++){
+            var info = infos[i];
+            var stack = info.getStackTrace();
+            boolean parking = (stack.length > 0) && stack[0].getMethodName().equals("park");
+
+            var thread = new ThreadInfo(store, source, time, info.getThreadName(), 0, (int)info.getThreadId(), describeState(info.getThreadState(), (info.getLockInfo() != null) && !parking));
+            thread.setId((int)info.getThreadId());
+            thread.setDaemon(info.isDaemon());
+            thread.setPrio(info.getPriority());
+            thread.setThreadState(info.getThreadState());
+            if((cpuTimes != null) && (cpuTimes[i] >= 0)){
+                thread.setCpu(cpuTimes[i] / 1_000_000.0d);
+            }
+            if((allocatedBytes != null) && (allocatedBytes[i] >= 0)){
+                thread.setAllocated(allocatedBytes[i]);
+            }
+
+            var frames = new ArrayList<ThreadInfo.CallFrame>(stack.length);
+            for(var element : stack){
+                frames.add(new ThreadInfo.CallFrame(element.getClassName(),
+                                                    element.getModuleName(),
+                                                    element.getModuleVersion(),
+                                                    element.getMethodName(),
+                                                    element.getFileName(),
+                                                    element.getLineNumber()));
+            }
+
+            // Same order as jstack: waiting lock, then locked monitors
+            if((info.getLockInfo() != null) && !frames.isEmpty()){
+                String description = switch(info.getThreadState()){
+                    case BLOCKED -> "waiting to lock";
+                    default -> parking ? "parking to wait for" : "waiting on";
+                };
+                frames.get(0).setLock(convertLock(description, info.getLockInfo()));
+            }
+            for(var monitor : info.getLockedMonitors()){
+                int depth = monitor.getLockedStackDepth();
+                if((depth >= 0) && (depth < frames.size())){
+                    frames.get(depth).setLock(convertLock("locked", monitor));
+                }
+            }
+
+            thread.setCallFrames(new LinkedList<>(frames));
+            dump.getThreads().add(thread);
+        }
+
+        return dump;
+    }
+
+    /**
+     * Start periodic sampling in a background thread.
+     * Sampling is stopped at the first failure (e.g. the target JVM exits).
+     *
+     * @param consumer called with each thread dump in the sampling thread.
+     * @param onError called with the failure in the sampling thread.
+     */
+    public synchronized void start(long intervalMillis, Consumer<ThreadDump> consumer, Consumer<RuntimeException> onError){
+        if(scheduler != null){
+            throw new IllegalStateException("Sampling is already started");
+        }
+
+        var executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "ThreadDumper sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler = executor;
+        executor.scheduleAtFixedRate(() -> {
+            try{
+                consumer.accept(sample());
+            }
+            catch(RuntimeException e){
+                // Exception from the task cancels following runs silently.
+                executor.shutdown();
+                onError.accept(e);
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop(){
+        if(scheduler != null){
+            scheduler.shutdown();
+            try{
+                scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException{
+        stop();
+        if(connector != null){
+            connector.close();
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.export;
+
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Export call stacks in collapsed stack format
+ * ({@code frame;frame;frame count}) which can be read by flame graph tools.
+ *
+ * Identical stacks are merged in each thread dump, so the same stack might
+ * appear in several lines. Flame graph tools sum them up.
+ *
+ * @author yasuenag
+ */
+public class CollapsedStackExporter implements DumpExporter{
+
+    private final BufferedWriter writer;
+
+    private final StringBuilder sb;
+
+    public CollapsedStackExporter(Path file) throws IOException{
+        writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), CsvWriter.BUFFER_SIZE);
+        sb = new StringBuilder();
+    }
+
+    private String collapse(List<ThreadInfo.CallFrame> callFrames){
+        sb.setLength(0);
+
+        // Root frame is the last one in the thread dump.
+        var itr = callFrames.listIterator(callFrames.size());
+        while(itr.hasPrevious()){
+            var frame = itr.previous();
+            if(frame == null){
+                continue;
+            }
+
+            var element = frame.getStackTraceElement();
+            if(sb.length() > 0){
+                sb.append(';');
+            }
+            sb.append(element.getClassName())
+              .append('.')
+              .append(element.getMethodName());
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public void write(long dumpId, ThreadDump dump) throws IOException{
+        Map<String, Long> stacks = new HashMap<>();
+
+        for(var thread : dump.getThreads()){
+            if(!thread.getCallFrames().isEmpty()){
+                stacks.merge(collapse(thread.getCallFrames()), 1L, Long::sum);
+            }
+        }
+        for(var group : dump.getVirtualThreadGroups()){
+            if(!group.getCallFrames().isEmpty()){
+                stacks.merge(collapse(group.getCallFrames()), group.getCount(), Long::sum);
+            }
+        }
+
+        for(var entry : stacks.entrySet()){
+            writer.write(entry.getKey());
+            writer.write(' ');
+            writer.write(Long.toString(entry.getValue()));
+            writer.write('\n');
+        }
+    }
+
+    @Override
+    public void close() throws IOException{
+        writer.close();
+    }
+
+}
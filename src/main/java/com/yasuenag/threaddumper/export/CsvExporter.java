@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.export;
+
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Export thread dumps to CSV files in the directory.
+ *
+ * <ul>
+ *   <li>dumps.csv: a record per thread dump</li>
+ *   <li>threads.csv: a record per thread, grouped virtual threads are written with their count</li>
+ *   <li>frames.csv: a record per call frame (depth 0 is the top of the stack)</li>
+ *   <li>locks.csv: a record per lock in call frames</li>
+ * </ul>
+ *
+ * Records are joined by dump_id, thread_index and depth.
+ *
+ * @author yasuenag
+ */
+public class CsvExporter implements DumpExporter{
+
+    private final CsvWriter dumps;
+
+    private final CsvWriter threads;
+
+    private final CsvWriter frames;
+
+    private final CsvWriter locks;
+
+    public CsvExporter(Path directory) throws IOException{
+        dumps = new CsvWriter(directory.resolve("dumps.csv"),
+                              "dump_id", "host", "pid", "time", "vm_version", "threads", "virtual_threads", "jni_global_refs", "weak_refs");
+        threads = new CsvWriter(directory.resolve("threads.csv"),
+                                "dump_id", "thread_index", "name", "id", "tid", "nid", "daemon", "prio", "os_prio", "cpu_ms", "elapsed_s",
+                                "allocated", "defined_classes", "state", "thread_state", "virtual", "carrier", "container", "count");
+        frames = new CsvWriter(directory.resolve("frames.csv"),
+                               "dump_id", "thread_index", "depth", "class", "method", "module", "module_version", "file", "line");
+        locks = new CsvWriter(directory.resolve("locks.csv"),
+                              "dump_id", "thread_index", "depth", "description", "address", "class");
+    }
+
+    @Override
+    public void write(long dumpId, ThreadDump dump) throws IOException{
+        dumps.add(dumpId)
+             .add(dump.getSource().getHost().orElse(null))
+             .add(dump.getSource().getPid().isPresent() ? dump.getSource().getPid().getAsLong() : null)
+             .add(dump.getTime())
+             .add(dump.getVmVersion())
+             .add(dump.getThreads().size())
+             .add(dump.getVirtualThreadCount())
+             .add(dump.getJniGlobalRefs())
+             .add(dump.getWeakRefs())
+             .endRecord();
+
+        int index = 0;
+        for(var thread : dump.getThreads()){
+            threads.add(dumpId)
+                   .add(index)
+                   .add(thread.getName())
+                   .add(thread.getId().isPresent() ? thread.getId().getAsInt() : null)
+                   .add(String.format("0x%x", thread.getTid()))
+                   .add(thread.getNid())
+                   .add(thread.isDaemon())
+                   .add(thread.getPrio().isPresent() ? thread.getPrio().getAsInt() : null)
+                   .add(thread.getOsPrio().isPresent() ? thread.getOsPrio().getAsInt() : null)
+                   .add(thread.getCpu().isPresent() ? thread.getCpu().getAsDouble() : null)
+                   .add(thread.getElapsed().isPresent() ? thread.getElapsed().getAsDouble() : null)
+                   .add(thread.getAllocated().isPresent() ? thread.getAllocated().getAsLong() : null)
+                   .add(thread.getDefinedClasses().isPresent() ? thread.getDefinedClasses().getAsLong() : null)
+                   .add(thread.getState())
+                   .add(thread.getThreadState().orElse(null))
+                   .add(thread.isVirtual())
+                   .add(thread.getCarrier().isPresent() ? thread.getCarrier().getAsLong() : null)
+                   .add(thread.getContainer().orElse(null))
+                   .add(1)
+                   .endRecord();
+            writeFrames(dumpId, index, thread.getCallFrames());
+            index++;
+        }
+
+        // Aggregated virtual threads do not have name nor ID.
+        for(var group : dump.getVirtualThreadGroups()){
+            threads.add(dumpId)
+                   .add(index)
+                   .skipTo("thread_state")
+                   .add(group.getThreadState().orElse(null))
+                   .add(true)
+                   .add((String)null)
+                   .add(group.getContainer())
+                   .add(group.getCount())
+                   .endRecord();
+            writeFrames(dumpId, index, group.getCallFrames());
+            index++;
+        }
+    }
+
+    private void writeFrames(long dumpId, int index, Iterable<ThreadInfo.CallFrame> callFrames) throws IOException{
+        int depth = 0;
+        for(var frame : callFrames){
+            if(frame == null){
+                continue;
+            }
+
+            var element = frame.getStackTraceElement();
+            frames.add(dumpId)
+                  .add(index)
+                  .add(depth)
+                  .add(element.getClassName())
+                  .add(element.getMethodName())
+                  .add(element.getModuleName())
+                  .add(element.getModuleVersion())
+                  .add(element.getFileName())
+                  .add(element.getLineNumber())
+                  .endRecord();
+
+            if(frame.getLock().isPresent()){
+                var lock = frame.getLock().get();
+                locks.add(dumpId)
+                     .add(index)
+                     .add(depth)
+                     .add(lock.getDescription())
+                     .add(String.format("0x%x", lock.getAddress()))
+                     .add(lock.getLockClass())
+                     .endRecord();
+            }
+
+            depth++;
+        }
+    }
+
+    @Override
+    public void close() throws IOException{
+        try(dumps; threads; frames; locks){
+            // Close all writers
+        }
+    }
+
+}
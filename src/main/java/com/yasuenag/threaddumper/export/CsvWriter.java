@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.export;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * CSV (RFC 4180) writer with fixed size buffer.
+ *
+ * @author yasuenag
+ */
+class CsvWriter implements Closeable{
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedWriter writer;
+
+    private final String[] header;
+
+    // number of columns which are added to the current record
+    private int columns;
+
+    public CsvWriter(Path file, String... header) throws IOException{
+        writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.header = header;
+        columns = 0;
+
+        for(var column : header){
+            add(column);
+        }
+        endRecord();
+    }
+
+    private void separate() throws IOException{
+        if(columns > 0){
+            writer.write(',');
+        }
+        columns++;
+    }
+
+    /**
+     * Add empty columns until the column in the header.
+     */
+    public CsvWriter skipTo(String column) throws IOException{
+        int index = Arrays.asList(header).indexOf(column);
+        if(index < columns){
+            throw new IllegalArgumentException("Column is not found after the current one: " + column);
+        }
+        while(columns < index){
+            add((String)null);
+        }
+        return this;
+    }
+
+    /**
+     * Add string column. null is written as empty column.
+     */
+    public CsvWriter add(String value) throws IOException{
+        separate();
+        if(value == null){
+            return this;
+        }
+
+        boolean needsQuote = false;
+        for(int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if((c == ',') || (c == '"') || (c == '\n') || (c == '\r')){
+                needsQuote = true;
+                break;
+            }
+        }
+
+        if(needsQuote){
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+        else{
+            writer.write(value);
+        }
+
+        return this;
+    }
+
+    public CsvWriter add(long value) throws IOException{
+        separate();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Add string representation of the object. null is written as empty column.
+     */
+    public CsvWriter add(Object value) throws IOException{
+        return add((value == null) ? null : value.toString());
+    }
+
+    /**
+     * @throws IllegalStateException if the number of columns is not the same as the header.
+     */
+    public void endRecord() throws IOException{
+        if(columns != header.length){
+            throw new IllegalStateException(columns + " columns are added, but the header has " + header.length + " columns");
+        }
+        writer.write('\n');
+        columns = 0;
+    }
+
+    @Override
+    public void close() throws IOException{
+        writer.close();
+    }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.export;
+
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writer of thread dumps to files for offline analysis.
+ * write() is called from single thread.
+ *
+ * @author yasuenag
+ */
+public interface DumpExporter extends Closeable{
+
+    /**
+     * @param dumpId sequential number of the thread dump in this export.
+     */
+    public void write(long dumpId, ThreadDump dump) throws IOException;
+
+}
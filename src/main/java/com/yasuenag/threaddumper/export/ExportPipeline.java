@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.export;
+
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline between parser and exporters.
+ *
+ * Thread dumps passed to accept() are queued to bounded queue, and they are
+ * written by the writer thread in parallel with parsing. accept() blocks
+ * while the queue is full, so the number of thread dumps in memory is bounded
+ * even if the writer is slower than the parser.
+ *
+ * @author yasuenag
+ */
+public class ExportPipeline implements Consumer<ThreadDump>, AutoCloseable{
+
+    public static final int DEFAULT_QUEUE_SIZE = 16;
+
+    // Marker of end of the queue
+    private static final ThreadDump END = new ThreadDump(null);
+
+    // Interval to check whether the writer is alive while the queue is full
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private final List<DumpExporter> exporters;
+
+    private final BlockingQueue<ThreadDump> queue;
+
+    private final Thread writer;
+
+    private volatile IOException failure;
+
+    private long exportedDumps;
+
+    public ExportPipeline(List<DumpExporter> exporters){
+        this(exporters, DEFAULT_QUEUE_SIZE);
+    }
+
+    public ExportPipeline(List<DumpExporter> exporters, int queueSize){
+        this.exporters = exporters;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.failure = null;
+        this.exportedDumps = 0;
+        this.writer = new Thread(this::run, "ThreadDumper export writer");
+        this.writer.start();
+    }
+
+    private void run(){
+        boolean finished = false;
+        try{
+            ThreadDump dump;
+            while((dump = queue.take()) != END){
+
+                // Drain the queue to avoid blocking the parser after failure
+                if(failure != null){
+                    continue;
+                }
+
+                try{
+                    for(var exporter : exporters){
+                        exporter.write(exportedDumps, dump);
+                    }
+                    exportedDumps++;
+                }
+                catch(IOException e){
+                    failure = e;
+                }
+                catch(RuntimeException e){
+                    failure = new IOException("Exporter failed", e);
+                }
+
+            }
+            finished = true;
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        finally{
+            if(!finished && (failure == null)){
+                failure = new IOException("Export writer is terminated unexpectedly");
+            }
+        }
+    }
+
+    /**
+     * Put the thread dump to the queue while the writer is alive.
+     *
+     * @return false if the writer is terminated.
+     */
+    private boolean put(ThreadDump dump) throws InterruptedException{
+        while(!queue.offer(dump, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)){
+            if(!writer.isAlive()){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Queue the thread dump to export. This method can be called from
+     * multiple threads concurrently.
+     */
+    @Override
+    public void accept(ThreadDump dump){
+        if(failure != null){
+            throw new UncheckedIOException(failure);
+        }
+
+        try{
+            if(!put(dump)){
+                var exception = failure;
+                throw (exception == null) ? new IllegalStateException("Export writer is terminated") : new UncheckedIOException(exception);
+            }
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exporting", e);
+        }
+    }
+
+    /**
+     * Wait for all queued thread dumps to be written, and close all exporters.
+     */
+    @Override
+    public void close() throws IOException{
+        try{
+            put(END);
+            writer.join();
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for export", e);
+        }
+
+        var exception = failure;
+        for(var exporter : exporters){
+            try{
+                exporter.close();
+            }
+            catch(IOException e){
+                if(exception == null){
+                    exception = e;
+                }
+                else{
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if(exception != null){
+            throw exception;
+        }
+    }
+
+    /**
+     * @return number of thread dumps which are written. It is valid after close().
+     */
+    public long getExportedDumps(){
+        return exportedDumps;
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
+
+/**
+ * JVM which the thread dump comes from.
+ *
+ * Thread dumps from the same host and PID are regarded as the same JVM.
+ * All thread dumps which have neither host nor PID are regarded as
+ * the same JVM ({@link #UNKNOWN}) to keep the behavior for the dumps from
+ * single process.
+ *
+ * @author yasuenag
+ */
+public class DumpSource {
+
+    // e.g. "web-1_pid12345.txt", "pid12345.log"
+    private static final Pattern FILE_NAME_PATTERN = Pattern.compile("^((?<host>.+?)[_.-])?pid[_.-]?(?<pid>\\d+)([_.-].*)?$", Pattern.CASE_INSENSITIVE);
+
+    public static final DumpSource UNKNOWN = new DumpSource(Optional.empty(), OptionalLong.empty());
+
+    private final Optional<String> host;
+
+    private final OptionalLong pid;
+
+    public DumpSource(Optional<String> host, OptionalLong pid){
+        this.host = host;
+        this.pid = pid;
+    }
+
+    /**
+     * Create DumpSource from file name. The file name should be
+     * "[host_]pid&lt;PID&gt;[_suffix]".
+     */
+    public static DumpSource fromPath(Path file){
+        var fileName = file.getFileName();
+        if(fileName == null){
+            return UNKNOWN;
+        }
+
+        var matcher = FILE_NAME_PATTERN.matcher(fileName.toString());
+        if(!matcher.matches()){
+            return UNKNOWN;
+        }
+
+        return new DumpSource(Optional.ofNullable(matcher.group("host")), OptionalLong.of(Long.parseLong(matcher.group("pid"))));
+    }
+
+    /**
+     * @return DumpSource which has same host and given PID.
+     */
+    public DumpSource withPid(long pid){
+        return new DumpSource(host, OptionalLong.of(pid));
+    }
+
+    public Optional<String> getHost(){
+        return host;
+    }
+
+    public OptionalLong getPid(){
+        return pid;
+    }
+
+    public boolean isUnknown(){
+        return host.isEmpty() && pid.isEmpty();
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 53 * hash + Objects.hashCode(this.host);
+        hash = 53 * hash + Objects.hashCode(this.pid);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if(obj instanceof DumpSource){
+            return Objects.equals(((DumpSource)obj).host, host) && Objects.equals(((DumpSource)obj).pid, pid);
+        }
+        else{
+            return false;
+        }
+
+    }
+
+    @Override
+    public String toString() {
+
+        if(isUnknown()){
+            return "(unknown)";
+        }
+
+        if(host.isEmpty()){
+            return Long.toString(pid.getAsLong());
+        }
+
+        return host.get() + (pid.isPresent() ? ":" + pid.getAsLong() : "");
+    }
+
+}
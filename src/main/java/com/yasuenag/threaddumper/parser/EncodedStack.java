@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Call stack encoded to varint array of frame IDs in {@link FrameTable}
+ * from the bottom of the stack. Locks are held in the side table with the
+ * depth from the bottom.
+ *
+ * Equality and common frames from the bottom can be checked on the encoded
+ * bytes without decoding. Stacks from different FrameTables are not equal.
+ *
+ * @author yasuenag
+ */
+public final class EncodedStack {
+
+    private final FrameTable table;
+
+    private final byte[] frames;
+
+    private final int depth;
+
+    // ascending; null if there are no locks
+    private final int[] lockDepths;
+
+    private final ThreadInfo.LockInfo[] locks;
+
+    EncodedStack(FrameTable table, byte[] frames, int depth, int[] lockDepths, ThreadInfo.LockInfo[] locks){
+        this.table = table;
+        this.frames = frames;
+        this.depth = depth;
+        this.lockDepths = lockDepths;
+        this.locks = locks;
+    }
+
+    public FrameTable getTable(){
+        return table;
+    }
+
+    public int getDepth(){
+        return depth;
+    }
+
+    /**
+     * @return size of the varint array in bytes.
+     */
+    public int getEncodedSize(){
+        return frames.length;
+    }
+
+    /**
+     * @return rough heap usage of this stack in bytes.
+     */
+    long estimateBytes(){
+        return 48 + frames.length + ((locks == null) ? 0 : locks.length * 64L);
+    }
+
+    byte[] getFrames(){
+        return frames;
+    }
+
+    int[] getLockDepths(){
+        return lockDepths;
+    }
+
+    ThreadInfo.LockInfo[] getLockArray(){
+        return locks;
+    }
+
+    /**
+     * @return locks from the top of the stack without decoding frames.
+     */
+    public List<ThreadInfo.LockInfo> getLocks(){
+        if(locks == null){
+            return List.of();
+        }
+
+        List<ThreadInfo.LockInfo> result = new ArrayList<>(locks.length);
+        for(int i = locks.length - 1; i >= 0; i--){
+            result.add(locks[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Decode to call frames from the top of the stack. Frames without lock
+     * are shared with the FrameTable, so they cannot be modified.
+     */
+    public LinkedList<ThreadInfo.CallFrame> decode(){
+        var result = new LinkedList<ThreadInfo.CallFrame>();
+        int pos = 0;
+        int lockIdx = 0;
+
+        for(int d = 0; d < depth; d++){
+            int id = 0;
+            int shift = 0;
+            byte b;
+            do{
+                b = frames[pos++];
+                id |= (b & 0x7f) << shift;
+                shift += 7;
+            }while(b < 0);
+
+            var frame = table.get(id);
+            if((locks != null) && (lockIdx < locks.length) && (lockDepths[lockIdx] == d)){
+                frame = new ThreadInfo.CallFrame(frame.getStackTraceElement(), false);
+                frame.setLock(locks[lockIdx++]);
+            }
+            result.addFirst(frame);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return number of same frames (including locks) from the bottom of both stacks.
+     */
+    public int commonSuffix(EncodedStack other){
+        if(table != other.table){
+            throw new IllegalArgumentException("Stacks are encoded by different FrameTables");
+        }
+
+        // Each varint ends with the byte which does not have MSB.
+        int mismatch = Arrays.mismatch(frames, other.frames);
+        int length = (mismatch < 0) ? frames.length : mismatch;
+        int common = 0;
+        for(int i = 0; i < length; i++){
+            if(frames[i] >= 0){
+                common++;
+            }
+        }
+
+        // Frames which have different locks are not same.
+        int i = 0;
+        int j = 0;
+        int thisLocks = (locks == null) ? 0 : locks.length;
+        int otherLocks = (other.locks == null) ? 0 : other.locks.length;
+        while(true){
+            int d1 = (i < thisLocks) ? lockDepths[i] : Integer.MAX_VALUE;
+            int d2 = (j < otherLocks) ? other.lockDepths[j] : Integer.MAX_VALUE;
+            int d = Math.min(d1, d2);
+            if(d >= common){
+                break;
+            }
+            else if((d1 == d2) && locks[i].equals(other.locks[j])){
+                i++;
+                j++;
+            }
+            else{
+                common = d;
+                break;
+            }
+        }
+
+        return common;
+    }
+
+    /**
+     * @return true if this stack starts with all frames of the other from the bottom.
+     */
+    public boolean startsWith(EncodedStack other){
+        return (other.depth <= depth) && (commonSuffix(other) == other.depth);
+    }
+
+    /**
+     * @return hash of the stack. Same stacks in same FrameTable have same fingerprint.
+     */
+    public long fingerprint(){
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for(var b : frames){
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        if(locks != null){
+            for(int i = 0; i < locks.length; i++){
+                hash = 31 * hash + lockDepths[i];
+                hash = 31 * hash + locks[i].hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+        if(obj instanceof EncodedStack){
+            var other = (EncodedStack)obj;
+            return (other.table == table) && Arrays.equals(other.frames, frames) &&
+                   Arrays.equals(other.lockDepths, lockDepths) && Arrays.equals(other.locks, locks);
+        }
+        else{
+            return false;
+        }
+
+    }
+
+}
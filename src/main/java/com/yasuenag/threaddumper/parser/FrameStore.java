@@ -0,0 +1,408 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+
+/**
+ * Disk-backed store of call frames under memory budget.
+ *
+ * Call frames of registered threads are resident until the estimated size
+ * of resident frames exceeds the budget. Then call frames of the least
+ * recently used threads are written to temporary file (only at the first
+ * eviction) and released. They are loaded again by
+ * {@link ThreadInfo#getCallFrames()} on demand.
+ *
+ * Resident call frames are returned without lock, so concurrent analyses do
+ * not contend on this store. Such accesses only mark the thread as referenced,
+ * and the mark gives it a second chance at the eviction (CLOCK approximation
+ * of LRU). The lock is taken to page in, and to register threads.
+ *
+ * Encoded stacks ({@link EncodedStack}) are also paged out as frame IDs if
+ * they are encoded by the FrameTable of this store.
+ *
+ * Call frames must not be modified after registration.
+ *
+ * @author yasuenag
+ */
+public class FrameStore implements Closeable {
+
+    // Rough size of CallFrame including StackTraceElement and strings
+    static final long FRAME_BYTES = 256;
+
+    private final long budgetBytes;
+
+    private final FrameTable table;
+
+    private final FileChannel channel;
+
+    // access ordered; value is estimated size of call frames
+    private final LinkedHashMap<ThreadInfo, Long> resident;
+
+    private long residentBytes;
+
+    private long writePosition;
+
+    private long loads;
+
+    private long evictions;
+
+    public FrameStore(long budgetBytes) throws IOException{
+        this(budgetBytes, null);
+    }
+
+    /**
+     * @param table FrameTable for encoded stacks. It can be null.
+     */
+    public FrameStore(long budgetBytes, FrameTable table) throws IOException{
+        this.budgetBytes = budgetBytes;
+        this.table = table;
+        this.channel = FileChannel.open(Files.createTempFile("threaddumper", ".frames"), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        this.resident = new LinkedHashMap<>(1024, 0.75f, true);
+        this.residentBytes = 0;
+        this.writePosition = 0;
+        this.loads = 0;
+        this.evictions = 0;
+    }
+
+    private static long estimate(ThreadInfo thread){
+        var encoded = thread.getResidentEncodedStack();
+        return (encoded == null) ? thread.getResidentCallFrames().size() * FRAME_BYTES : encoded.estimateBytes();
+    }
+
+    public FrameTable getFrameTable(){
+        return table;
+    }
+
+    /**
+     * Register all threads in the thread dump to this store.
+     * It can be called from multiple threads concurrently.
+     */
+    public synchronized void register(ThreadDump dump){
+        for(var thread : dump.getThreads()){
+            thread.setFrameStore(this);
+            touch(thread);
+        }
+        evict();
+    }
+
+    private void touch(ThreadInfo thread){
+        long size = estimate(thread);
+        if(resident.put(thread, size) == null){
+            residentBytes += size;
+        }
+    }
+
+    private void evict(){
+        // Each resident thread gets at most one second chance in this eviction.
+        int secondChances = resident.size();
+
+        // Keep at least one thread which is used right now.
+        while((residentBytes > budgetBytes) && (resident.size() > 1)){
+            var itr = resident.entrySet().iterator();
+            var entry = itr.next();
+            var thread = entry.getKey();
+            if(thread.isReferenced() && (secondChances > 0)){
+                // Move to the tail as the most recently used.
+                thread.setReferenced(false);
+                resident.get(thread);
+                secondChances--;
+                continue;
+            }
+            if(thread.getFrameOffset() < 0){
+                write(thread);
+            }
+            thread.setResident(null, null);
+            residentBytes -= entry.getValue();
+            itr.remove();
+            evictions++;
+        }
+    }
+
+    private void pageIn(ThreadInfo thread){
+        if((thread.getResidentCallFrames() == null) && (thread.getResidentEncodedStack() == null)){
+            read(thread);
+            loads++;
+        }
+        thread.setReferenced(false);
+        touch(thread);
+    }
+
+    /**
+     * Called by ThreadInfo when its call frames are accessed.
+     */
+    LinkedList<ThreadInfo.CallFrame> load(ThreadInfo thread){
+        // Both fields are read once because they might be released concurrently.
+        var encoded = thread.getResidentEncodedStack();
+        var callFrames = thread.getResidentCallFrames();
+        if((encoded == null) && (callFrames == null)){
+            synchronized(this){
+                pageIn(thread);
+                encoded = thread.getResidentEncodedStack();
+                callFrames = thread.getResidentCallFrames();
+                evict();
+            }
+        }
+        else{
+            thread.setReferenced(true);
+        }
+        return (encoded == null) ? callFrames : encoded.decode();
+    }
+
+    /**
+     * Called by ThreadInfo when its encoded stack is accessed.
+     */
+    EncodedStack loadEncoded(ThreadInfo thread){
+        var encoded = thread.getResidentEncodedStack();
+        if((encoded == null) && (thread.getResidentCallFrames() == null)){
+            synchronized(this){
+                pageIn(thread);
+                encoded = thread.getResidentEncodedStack();
+                evict();
+            }
+        }
+        else{
+            thread.setReferenced(true);
+        }
+        return encoded;
+    }
+
+    /**
+     * Called by ThreadInfo when its call frames are replaced.
+     */
+    synchronized void unregister(ThreadInfo thread){
+        var size = resident.remove(thread);
+        if(size != null){
+            residentBytes -= size;
+        }
+        thread.setFrameStore(null);
+        thread.setFrameLocation(-1, 0);
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String str) throws IOException{
+        out.writeBoolean(str != null);
+        if(str != null){
+            out.writeUTF(str);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException{
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void write(ThreadInfo thread){
+        try{
+            var bytes = new ByteArrayOutputStream();
+            var out = new DataOutputStream(bytes);
+
+            var encoded = thread.getResidentEncodedStack();
+            var callFrames = thread.getResidentCallFrames();
+            if((encoded != null) && (encoded.getTable() == table)){
+                writeEncoded(out, encoded);
+                callFrames = null;
+            }
+            else{
+                out.writeBoolean(false);
+                if(encoded != null){
+                    // Encoded by other table. It is restored as call frames.
+                    callFrames = encoded.decode();
+                }
+            }
+
+            if(callFrames != null){
+                writeCallFrames(out, callFrames);
+            }
+            out.flush();
+
+            var buf = ByteBuffer.wrap(bytes.toByteArray());
+            thread.setFrameLocation(writePosition, buf.remaining());
+            while(buf.hasRemaining()){
+                writePosition += channel.write(buf, writePosition);
+            }
+        }
+        catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeLock(DataOutputStream out, ThreadInfo.LockInfo lock) throws IOException{
+        out.writeUTF(lock.getDescription());
+        out.writeLong(lock.getAddress());
+        out.writeUTF(lock.getLockClass());
+    }
+
+    private static ThreadInfo.LockInfo readLock(DataInputStream in) throws IOException{
+        return new ThreadInfo.LockInfo(in.readUTF(), in.readLong(), in.readUTF());
+    }
+
+    private static void writeEncoded(DataOutputStream out, EncodedStack encoded) throws IOException{
+        out.writeBoolean(true);
+        out.writeInt(encoded.getDepth());
+        out.writeInt(encoded.getFrames().length);
+        out.write(encoded.getFrames());
+
+        var locks = encoded.getLockArray();
+        out.writeInt((locks == null) ? 0 : locks.length);
+        if(locks != null){
+            var lockDepths = encoded.getLockDepths();
+            for(int i = 0; i < locks.length; i++){
+                out.writeInt(lockDepths[i]);
+                writeLock(out, locks[i]);
+            }
+        }
+    }
+
+    private EncodedStack readEncoded(DataInputStream in) throws IOException{
+        int depth = in.readInt();
+        var frames = new byte[in.readInt()];
+        in.readFully(frames);
+
+        int lockCount = in.readInt();
+        int[] lockDepths = null;
+        ThreadInfo.LockInfo[] locks = null;
+        if(lockCount > 0){
+            lockDepths = new int[lockCount];
+            locks = new ThreadInfo.LockInfo[lockCount];
+            for(int i = 0; i < lockCount; i++){
+                lockDepths[i] = in.readInt();
+                locks[i] = readLock(in);
+            }
+        }
+
+        return new EncodedStack(table, frames, depth, lockDepths, locks);
+    }
+
+    private static void writeCallFrames(DataOutputStream out, LinkedList<ThreadInfo.CallFrame> callFrames) throws IOException{
+        out.writeInt(callFrames.size());
+        for(var frame : callFrames){
+            out.writeBoolean(frame != null);
+            if(frame == null){
+                continue;
+            }
+
+            var element = frame.getStackTraceElement();
+            out.writeUTF(element.getClassName());
+            writeNullableUTF(out, element.getModuleName());
+            writeNullableUTF(out, element.getModuleVersion());
+            out.writeUTF(element.getMethodName());
+            writeNullableUTF(out, element.getFileName());
+            out.writeInt(element.getLineNumber());
+
+            var lock = frame.getLock();
+            out.writeBoolean(lock.isPresent());
+            if(lock.isPresent()){
+                writeLock(out, lock.get());
+            }
+        }
+    }
+
+    private void read(ThreadInfo thread){
+        try{
+            var buf = ByteBuffer.allocate(thread.getFrameLength());
+            long position = thread.getFrameOffset();
+            while(buf.hasRemaining()){
+                int n = channel.read(buf, position + buf.position());
+                if(n < 0){
+                    throw new IOException("Frame store is truncated");
+                }
+            }
+
+            var in = new DataInputStream(new ByteArrayInputStream(buf.array()));
+            if(in.readBoolean()){
+                thread.setResident(null, readEncoded(in));
+                return;
+            }
+
+            int size = in.readInt();
+            var callFrames = new LinkedList<ThreadInfo.CallFrame>();
+            for(int i = 0; i < size; i++){
+                if(!in.readBoolean()){
+                    callFrames.add(null);
+                    continue;
+                }
+
+                var frame = new ThreadInfo.CallFrame(in.readUTF(),            // declaring class
+                                                     readNullableUTF(in),     // module name
+                                                     readNullableUTF(in),     // module version
+                                                     in.readUTF(),            // method name
+                                                     readNullableUTF(in),     // file name
+                                                     in.readInt());           // line number
+                if(in.readBoolean()){
+                    frame.setLock(readLock(in));
+                }
+                callFrames.add(frame);
+            }
+
+            thread.setResident(callFrames, null);
+        }
+        catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getBudgetBytes(){
+        return budgetBytes;
+    }
+
+    public synchronized long getResidentBytes(){
+        return residentBytes;
+    }
+
+    /**
+     * @return bytes in the temporary file.
+     */
+    public synchronized long getStoredBytes(){
+        return writePosition;
+    }
+
+    /**
+     * @return number of loading call frames from the temporary file.
+     */
+    public synchronized long getLoads(){
+        return loads;
+    }
+
+    public synchronized long getEvictions(){
+        return evictions;
+    }
+
+    /**
+     * Delete the temporary file. Call frames which are not resident cannot
+     * be loaded after that.
+     */
+    @Override
+    public synchronized void close() throws IOException{
+        channel.close();
+        resident.clear();
+        residentBytes = 0;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of unique call frames (class, method, file, line and module).
+ * Each frame has an integer ID, and call stacks are encoded to arrays of
+ * them ({@link EncodedStack}). Locks are not a part of the frame.
+ *
+ * Frames can be interned from multiple threads concurrently.
+ *
+ * @author yasuenag
+ */
+public class FrameTable {
+
+    private final ConcurrentHashMap<StackTraceElement, Integer> ids;
+
+    // Immutable frames without lock. They are shared by decoded stacks.
+    private volatile ThreadInfo.CallFrame[] frames;
+
+    private int size;
+
+    public FrameTable(){
+        this.ids = new ConcurrentHashMap<>();
+        this.frames = new ThreadInfo.CallFrame[1024];
+        this.size = 0;
+    }
+
+    private int intern(StackTraceElement element){
+        var id = ids.get(element);
+        if(id != null){
+            return id;
+        }
+
+        synchronized(this){
+            id = ids.get(element);
+            if(id == null){
+                var current = frames;
+                if(size == current.length){
+                    current = Arrays.copyOf(current, current.length * 2);
+                }
+                current[size] = new ThreadInfo.CallFrame(element, true);
+                frames = current;
+                id = size++;
+                ids.put(element, id);
+            }
+            return id;
+        }
+    }
+
+    ThreadInfo.CallFrame get(int id){
+        return frames[id];
+    }
+
+    /**
+     * @return number of unique frames.
+     */
+    public int size(){
+        return ids.size();
+    }
+
+    /**
+     * Encode the call stack. Null frame is regarded as the end of the stack
+     * like StackDiff.
+     */
+    public EncodedStack encode(List<ThreadInfo.CallFrame> callFrames){
+        var buf = new byte[Math.max(callFrames.size() * 2, 8)];
+        int pos = 0;
+        int depth = 0;
+        int[] lockDepths = null;
+        ThreadInfo.LockInfo[] locks = null;
+        int lockCount = 0;
+
+        // From the bottom, so common bytes from the head are common frames from the bottom.
+        var itr = callFrames.listIterator(callFrames.size());
+        while(itr.hasPrevious()){
+            var frame = itr.previous();
+            if(frame == null){
+                break;
+            }
+
+            int id = intern(frame.getStackTraceElement());
+            if(pos + 5 > buf.length){
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            while((id & ~0x7f) != 0){
+                buf[pos++] = (byte)((id & 0x7f) | 0x80);
+                id >>>= 7;
+            }
+            buf[pos++] = (byte)id;
+
+            if(frame.getLock().isPresent()){
+                if(locks == null){
+                    lockDepths = new int[4];
+                    locks = new ThreadInfo.LockInfo[4];
+                }
+                else if(lockCount == locks.length){
+                    lockDepths = Arrays.copyOf(lockDepths, lockCount * 2);
+                    locks = Arrays.copyOf(locks, lockCount * 2);
+                }
+                lockDepths[lockCount] = depth;
+                locks[lockCount++] = frame.getLock().get();
+            }
+
+            depth++;
+        }
+
+        return new EncodedStack(this,
+                                Arrays.copyOf(buf, pos),
+                                depth,
+                                (lockCount == 0) ? null : Arrays.copyOf(lockDepths, lockCount),
+                                (lockCount == 0) ? null : Arrays.copyOf(locks, lockCount));
+    }
+
+}
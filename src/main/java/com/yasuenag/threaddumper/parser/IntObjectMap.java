@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Open addressing hash map which has int keys without boxing.
+ * null value is not allowed.
+ *
+ * Keys are held in {@link LongObjectMap} as unsigned values, so both maps
+ * share the same probing.
+ *
+ * @author yasuenag
+ */
+public class IntObjectMap<V> {
+
+    @FunctionalInterface
+    public static interface Visitor<V>{
+        public void accept(int key, V value);
+    }
+
+    private final LongObjectMap<V> map;
+
+    public IntObjectMap(){
+        map = new LongObjectMap<>();
+    }
+
+    public IntObjectMap(int expectedSize){
+        map = new LongObjectMap<>(expectedSize);
+    }
+
+    public V get(int key){
+        return map.get(Integer.toUnsignedLong(key));
+    }
+
+    public boolean containsKey(int key){
+        return map.containsKey(Integer.toUnsignedLong(key));
+    }
+
+    public V put(int key, V value){
+        return map.put(Integer.toUnsignedLong(key), value);
+    }
+
+    public V computeIfAbsent(int key, IntFunction<V> mappingFunction){
+        return map.computeIfAbsent(Integer.toUnsignedLong(key), k -> mappingFunction.apply(key));
+    }
+
+    public int size(){
+        return map.size();
+    }
+
+    public boolean isEmpty(){
+        return map.isEmpty();
+    }
+
+    public void forEach(Visitor<V> visitor){
+        map.forEach((k, v) -> visitor.accept((int)k, v));
+    }
+
+    public List<V> values(){
+        return map.values();
+    }
+
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull-style JSON tokenizer. It does not build any DOM, so memory usage
+ * does not depend on the size of the input.
+ *
+ * @author yasuenag
+ */
+class JsonReader {
+
+    public static enum Token{
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        LITERAL, // number, true, false
+        NULL,
+        END_DOCUMENT
+    }
+
+    private final Reader reader;
+
+    private final char[] buf;
+
+    private int pos;
+
+    private int limit;
+
+    private final StringBuilder sb;
+
+    // true if the next string in current object is a name
+    private boolean expectName;
+
+    // true if ',' is needed before the next element in current object or array
+    private boolean expectComma;
+
+    // stack of containers: true means object
+    private boolean[] stack;
+
+    private int depth;
+
+    public JsonReader(Reader reader){
+        this.reader = reader;
+        this.buf = new char[8192];
+        this.pos = 0;
+        this.limit = 0;
+        this.sb = new StringBuilder();
+        this.expectName = false;
+        this.expectComma = false;
+        this.stack = new boolean[32];
+        this.depth = 0;
+    }
+
+    private int read() throws IOException{
+
+        if(pos == limit){
+            limit = reader.read(buf, 0, buf.length);
+            pos = 0;
+            if(limit <= 0){
+                limit = 0;
+                return -1;
+            }
+        }
+
+        return buf[pos++];
+    }
+
+    private int peekChar() throws IOException{
+        int c = read();
+        if(c != -1){
+            pos--;
+        }
+        return c;
+    }
+
+    private int skipWhitespace() throws IOException{
+        int c;
+
+        do{
+            c = read();
+        }while((c == ' ') || (c == '\t') || (c == '\r') || (c == '\n'));
+
+        if(c != -1){
+            pos--;
+        }
+        return c;
+    }
+
+    /**
+     * Skip whitespaces and ',' between elements.
+     *
+     * @return next character, it is not consumed.
+     */
+    private int skipSeparator() throws IOException{
+        int c = skipWhitespace();
+
+        if(expectComma && (c != '}') && (c != ']') && (c != -1)){
+            if(c != ','){
+                throw new IOException("Unexpected character in JSON: expected ',' but '" + (char)c + "'");
+            }
+            read();
+            expectComma = false;
+            c = skipWhitespace();
+            if((c == '}') || (c == ']')){
+                throw new IOException("Trailing ',' in JSON");
+            }
+        }
+
+        return c;
+    }
+
+    private void push(boolean isObject){
+        if(depth == stack.length){
+            var newStack = new boolean[stack.length * 2];
+            System.arraycopy(stack, 0, newStack, 0, stack.length);
+            stack = newStack;
+        }
+        stack[depth++] = isObject;
+        expectName = isObject;
+        expectComma = false;
+    }
+
+    private void pop(){
+        depth--;
+        valueConsumed();
+    }
+
+    /**
+     * @return type of the next token. The token is not consumed.
+     */
+    public Token peek() throws IOException{
+        int c = skipSeparator();
+
+        return switch(c){
+            case -1 -> Token.END_DOCUMENT;
+            case '{' -> Token.BEGIN_OBJECT;
+            case '}' -> Token.END_OBJECT;
+            case '[' -> Token.BEGIN_ARRAY;
+            case ']' -> Token.END_ARRAY;
+            case '"' -> expectName ? Token.NAME : Token.STRING;
+            case 'n' -> Token.NULL;
+            default -> Token.LITERAL;
+        };
+    }
+
+    private void expect(char expected) throws IOException{
+        skipSeparator();
+        int c = read();
+        if(c != expected){
+            throw new IOException("Unexpected character in JSON: expected '" + expected + "' but " + ((c == -1) ? "EOF" : "'" + (char)c + "'"));
+        }
+    }
+
+    public void beginObject() throws IOException{
+        expect('{');
+        push(true);
+    }
+
+    public void endObject() throws IOException{
+        expect('}');
+        pop();
+    }
+
+    public void beginArray() throws IOException{
+        expect('[');
+        push(false);
+    }
+
+    public void endArray() throws IOException{
+        expect(']');
+        pop();
+    }
+
+    /**
+     * @return true if current object or array has more elements.
+     */
+    public boolean hasNext() throws IOException{
+        var token = peek();
+        return (token != Token.END_OBJECT) && (token != Token.END_ARRAY) && (token != Token.END_DOCUMENT);
+    }
+
+    public String nextName() throws IOException{
+        if(!expectName){
+            throw new IOException("JSON name is not expected here");
+        }
+        expect('"');
+        var name = readString();
+        expectName = false;
+        expect(':');
+        return name;
+    }
+
+    private void valueConsumed(){
+        expectName = (depth > 0) && stack[depth - 1];
+        expectComma = depth > 0;
+    }
+
+    /**
+     * Read string, number or literal as String.
+     *
+     * @return value of the string, or null if the value is null literal.
+     */
+    public String nextString() throws IOException{
+        String result;
+
+        switch(peek()){
+            case STRING -> {
+                read();
+                result = readString();
+            }
+            case LITERAL, NULL -> {
+                sb.setLength(0);
+                int c;
+                while(((c = peekChar()) != -1) && (c != ',') && (c != '}') && (c != ']') && !Character.isWhitespace(c)){
+                    sb.append((char)read());
+                }
+                result = sb.toString();
+                if(result.equals("null")){
+                    result = null;
+                }
+            }
+            default -> throw new IOException("JSON string is expected");
+        }
+
+        valueConsumed();
+        return result;
+    }
+
+    /**
+     * Skip next value including nested objects and arrays.
+     */
+    public void skipValue() throws IOException{
+
+        switch(peek()){
+            case BEGIN_OBJECT -> {
+                beginObject();
+                while(hasNext()){
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+            }
+            case BEGIN_ARRAY -> {
+                beginArray();
+                while(hasNext()){
+                    skipValue();
+                }
+                endArray();
+            }
+            default -> nextString();
+        }
+
+        valueConsumed();
+    }
+
+    private String readString() throws IOException{
+        sb.setLength(0);
+        int c;
+
+        while((c = read()) != '"'){
+
+            if(c == -1){
+                throw new IOException("Unterminated string in JSON");
+            }
+            else if(c == '\\'){
+                c = read();
+                switch(c){
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'r' -> sb.append('\r');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        int code = 0;
+                        for(int i = 0; i < 4; i++){
+                            int digit = Character.digit(read(), 16);
+                            if(digit < 0){
+                                throw new IOException("Invalid \\u escape in JSON");
+                            }
+                            code = (code << 4) | digit;
+                        }
+                        sb.append((char)code);
+                    }
+                    case -1 -> throw new IOException("Unterminated string in JSON");
+                    default -> sb.append((char)c); // '"', '\\', '/'
+                }
+            }
+            else{
+                sb.append((char)c);
+            }
+
+        }
+
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Parser for JSON thread dump generated by
+ * {@code jcmd <PID> Thread.dump_to_file -format=json <file>}.
+ *
+ * JSON thread dump does not have native thread ID (nid), so thread ID
+ * (Thread::threadId) is used as nid.
+ *
+ * @author yasuenag
+ */
+public class JsonThreadDumpParser {
+
+    // [class loader/][module[@version]/]class.method(file:line)
+    private static final Pattern STACK_ELEMENT_PATTERN = Pattern.compile("^(((?<classLoader>[^/]*)/)?((?<moduleName>[^/@]+)(@(?<moduleVersion>[^/]+))?)?/)?(?<declaringClass>[^/(]+)\\.(?<methodName>[^.(]+)\\((?<fileName>.*?)(:(?<lineNumber>\\d+))?\\)$");
+
+    private static final String VIRTUAL_THREAD_ENTRY = "java.lang.VirtualThread";
+
+    /**
+     * Parse JSON thread dump with bounded memory usage.
+     *
+     * Platform threads and mounted virtual threads are held as ThreadInfo.
+     * Other virtual threads are aggregated to VirtualThreadGroup by thread
+     * container and call stack, so the memory usage depends on the number
+     * of distinct call stacks rather than the number of virtual threads.
+     */
+    public static ThreadDump parse(DumpSource source, Reader reader) throws IOException{
+        return parse(source, reader, TimeWindow.ALL);
+    }
+
+    /**
+     * Parse JSON thread dump with bounded memory usage.
+     *
+     * @return null if the thread dump is out of the window.
+     */
+    public static ThreadDump parse(DumpSource source, Reader reader, TimeWindow window) throws IOException{
+        List<ThreadInfo> threads = new ArrayList<>();
+        List<ThreadDump.VirtualThreadGroup> groupList = new ArrayList<>();
+        Map<String, Map<List<ThreadInfo.CallFrame>, ThreadDump.VirtualThreadGroup>> groups = new HashMap<>();
+
+        var result = parse(source, reader, window, t -> {
+            if(!t.isVirtual() || t.getCarrier().isPresent()){
+                threads.add(t);
+                return;
+            }
+
+            // Row in ThreadInfoStore is not needed for grouped virtual thread.
+            // Attributes in the row must be read before removing it.
+            var container = t.getContainer().orElse("");
+            var state = t.getThreadState();
+            t.getStore().removeRow(t.getRow());
+            var group = groups.computeIfAbsent(container, k -> new HashMap<>())
+                              .computeIfAbsent(t.getCallFrames(), k -> {
+                                  var g = new ThreadDump.VirtualThreadGroup(container, k, state);
+                                  groupList.add(g);
+                                  return g;
+                              });
+            group.increment();
+        });
+        if(result == null){
+            return null;
+        }
+
+        result.getThreads().addAll(threads);
+        result.getVirtualThreadGroups().addAll(groupList);
+        return result;
+    }
+
+    /**
+     * Parse JSON thread dump in streaming manner.
+     * ThreadDump which is returned does not have any threads, all threads are passed to consumer.
+     * Numeric attributes of all threads are held in ThreadInfoStore of the ThreadDump.
+     */
+    public static ThreadDump parse(DumpSource source, Reader reader, Consumer<ThreadInfo> consumer) throws IOException{
+        return parse(source, reader, TimeWindow.ALL, consumer);
+    }
+
+    /**
+     * Parse JSON thread dump in the time window in streaming manner.
+     * Threads are not parsed if the thread dump is out of the window.
+     *
+     * @return null if the thread dump is out of the window.
+     */
+    public static ThreadDump parse(DumpSource source, Reader reader, TimeWindow window, Consumer<ThreadInfo> consumer) throws IOException{
+        var json = new JsonReader(reader);
+        var store = new ThreadInfoStore();
+        LocalDateTime time = null;
+        String vmVersion = null;
+
+        json.beginObject();
+        while(json.hasNext()){
+            if(!json.nextName().equals("threadDump")){
+                json.skipValue();
+                continue;
+            }
+
+            json.beginObject();
+            while(json.hasNext()){
+                switch(json.nextName()){
+                    case "processId" -> {
+                        var pid = json.nextString();
+                        if(pid != null){
+                            source = source.withPid(Long.parseLong(pid));
+                        }
+                    }
+                    case "time" -> time = parseTime(json.nextString());
+                    case "runtimeVersion" -> vmVersion = json.nextString();
+                    case "threadContainers" -> {
+                        if(time == null){
+                            throw new IOException("\"time\" must be appeared before \"threadContainers\"");
+                        }
+                        if(window.contains(time)){
+                            parseThreadContainers(json, store, source, time, consumer);
+                        }
+                        else{
+                            json.skipValue();
+                        }
+                    }
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        json.endObject();
+
+        if(time == null){
+            throw new IOException("Not a JSON thread dump");
+        }
+        else if(!window.contains(time)){
+            return null;
+        }
+
+        var result = new ThreadDump(source, time, store);
+        result.setVmVersion(vmVersion);
+        return result;
+    }
+
+    private static LocalDateTime parseTime(String time) throws IOException{
+        try{
+            return LocalDateTime.ofInstant(Instant.parse(time), ZoneId.systemDefault());
+        }
+        catch(DateTimeParseException e){
+            try{
+                return LocalDateTime.parse(time);
+            }
+            catch(DateTimeParseException e2){
+                throw new IOException("Unknown time format: " + time, e2);
+            }
+        }
+    }
+
+    private static void parseThreadContainers(JsonReader json, ThreadInfoStore store, DumpSource source, LocalDateTime time, Consumer<ThreadInfo> consumer) throws IOException{
+        json.beginArray();
+        while(json.hasNext()){
+            String container = null;
+
+            json.beginObject();
+            while(json.hasNext()){
+                switch(json.nextName()){
+                    case "container" -> container = json.nextString();
+                    case "threads" -> {
+                        json.beginArray();
+                        while(json.hasNext()){
+                            consumer.accept(parseThread(json, store, source, time, container));
+                        }
+                        json.endArray();
+                    }
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        json.endArray();
+    }
+
+    private static ThreadInfo parseThread(JsonReader json, ThreadInfoStore store, DumpSource source, LocalDateTime time, String container) throws IOException{
+        long tid = 0;
+        String name = "";
+        String state = null;
+        String virtual = null;
+        String carrier = null;
+        LinkedList<ThreadInfo.CallFrame> callFrames = new LinkedList<>();
+
+        json.beginObject();
+        while(json.hasNext()){
+            switch(json.nextName()){
+                case "tid" -> tid = Long.parseLong(json.nextString());
+                case "name" -> name = json.nextString();
+                case "state" -> state = json.nextString();
+                case "virtual" -> virtual = json.nextString();
+                case "carrier" -> carrier = json.nextString();
+                case "stack" -> {
+                    json.beginArray();
+                    while(json.hasNext()){
+                        callFrames.add(parseStackElement(json.nextString()));
+                    }
+                    json.endArray();
+                }
+                default -> json.skipValue();
+            }
+        }
+        json.endObject();
+
+        var info = new ThreadInfo(store, source, time, name, 0, (int)tid, (state == null) ? "" : state.toLowerCase());
+        info.setId((int)tid);
+        info.setCallFrames(callFrames);
+        if(state != null){
+            try{
+                info.setThreadState(Thread.State.valueOf(state));
+            }
+            catch(IllegalArgumentException e){
+                // Unknown state - leave it empty
+            }
+        }
+        if(container != null){
+            info.setContainer(container);
+        }
+        if(carrier != null){
+            info.setCarrier(Long.parseLong(carrier));
+        }
+
+        if(virtual != null){
+            info.setVirtual(Boolean.parseBoolean(virtual));
+        }
+        else if(!callFrames.isEmpty()){
+            // JDK 21 does not have "virtual" - check the bottom frame.
+            info.setVirtual(callFrames.getLast().getStackTraceElement().getClassName().equals(VIRTUAL_THREAD_ENTRY));
+        }
+
+        return info;
+    }
+
+    private static ThreadInfo.CallFrame parseStackElement(String element) throws IOException{
+        var matcher = STACK_ELEMENT_PATTERN.matcher(element);
+        if(!matcher.matches()){
+            throw new IOException("Unknown stack element: " + element);
+        }
+
+        String fileName = matcher.group("fileName");
+        int lineNumber;
+        var matchedLineNumber = matcher.group("lineNumber");
+        if(matchedLineNumber != null){
+            lineNumber = Integer.parseInt(matchedLineNumber);
+        }
+        else if(fileName.equals("Native Method")){
+            fileName = null;
+            lineNumber = -2; // See ThreadDumpParser::parseThread
+        }
+        else{
+            if(fileName.equals("Unknown Source")){
+                fileName = null;
+            }
+            lineNumber = -1;
+        }
+
+        return new ThreadInfo.CallFrame(matcher.group("declaringClass"),
+                                        matcher.group("moduleName"),
+                                        matcher.group("moduleVersion"),
+                                        matcher.group("methodName"),
+                                        fileName,
+                                        lineNumber);
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Line reader which can push back one line and counts line numbers.
+ *
+ * @author yasuenag
+ */
+class LineReader {
+
+    private final BufferedReader reader;
+
+    private String pushedBack;
+
+    private long lineNumber;
+
+    private long readNanos;
+
+    public LineReader(BufferedReader reader){
+        this.reader = reader;
+        this.pushedBack = null;
+        this.lineNumber = 0;
+        this.readNanos = 0;
+    }
+
+    public String readLine() throws IOException{
+
+        if(pushedBack != null){
+            var line = pushedBack;
+            pushedBack = null;
+            return line;
+        }
+
+        long start = System.nanoTime();
+        var line = reader.readLine();
+        readNanos += System.nanoTime() - start;
+        if(line != null){
+            lineNumber++;
+        }
+        return line;
+    }
+
+    /**
+     * Push back the line. It will be returned by next readLine() call.
+     */
+    public void unread(String line){
+        if(pushedBack != null){
+            throw new IllegalStateException("Only one line can be pushed back");
+        }
+        pushedBack = line;
+    }
+
+    /**
+     * @return line number of the line which is returned by the last readLine() call.
+     */
+    public long getLineNumber(){
+        return (pushedBack == null) ? lineNumber : lineNumber - 1;
+    }
+
+    /**
+     * @return total time in underlying reader (I/O and decoding).
+     */
+    public long getReadNanos(){
+        return readNanos;
+    }
+
+}
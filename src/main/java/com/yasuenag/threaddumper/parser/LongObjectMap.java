@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Open addressing hash map which has long keys without boxing.
+ * null value is not allowed.
+ *
+ * @author yasuenag
+ */
+public class LongObjectMap<V> {
+
+    @FunctionalInterface
+    public static interface Visitor<V>{
+        public void accept(long key, V value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    public LongObjectMap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize){
+        int capacity = capacityFor(expectedSize);
+        keys = new long[capacity];
+        values = new Object[capacity];
+        size = 0;
+    }
+
+    /**
+     * @return power of 2 capacity which keeps load factor under 0.5.
+     *         It is shared with {@link LongSet}.
+     */
+    static int capacityFor(int expectedSize){
+        return Integer.highestOneBit(Math.max(expectedSize * 2 - 1, 1)) << 1;
+    }
+
+    /**
+     * Hash function for linear probing. It is shared with {@link LongSet}.
+     */
+    static int hash(long key){
+        int h = (int)(key ^ (key >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(long key){
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+
+        while((values[i] != null) && (keys[i] != key)){
+            i = (i + 1) & mask;
+        }
+
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key){
+        return (V)values[indexOf(key)];
+    }
+
+    public boolean containsKey(long key){
+        return values[indexOf(key)] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value){
+        if(value == null){
+            throw new IllegalArgumentException("null value is not allowed");
+        }
+
+        int i = indexOf(key);
+        var old = (V)values[i];
+        keys[i] = key;
+        values[i] = value;
+
+        if(old == null){
+            size++;
+            if(size * 2 > keys.length){
+                rehash();
+            }
+        }
+
+        return old;
+    }
+
+    public V computeIfAbsent(long key, LongFunction<V> mappingFunction){
+        var value = get(key);
+
+        if(value == null){
+            value = mappingFunction.apply(key);
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    private void rehash(){
+        var oldKeys = keys;
+        var oldValues = values;
+
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldValues[i] != null){
+                int j = indexOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<V> visitor){
+        for(int i = 0; i < keys.length; i++){
+            if(values[i] != null){
+                visitor.accept(keys[i], (V)values[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<V> values(){
+        List<V> result = new ArrayList<>(size);
+
+        for(var value : values){
+            if(value != null){
+                result.add((V)value);
+            }
+        }
+
+        return result;
+    }
+
+}
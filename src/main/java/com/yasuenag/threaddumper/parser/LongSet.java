@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+/**
+ * Open addressing hash set of long values without boxing.
+ *
+ * @author yasuenag
+ */
+public class LongSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+
+    private boolean[] used;
+
+    private int size;
+
+    public LongSet(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongSet(int expectedSize){
+        int capacity = LongObjectMap.capacityFor(expectedSize);
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        size = 0;
+    }
+
+    public static LongSet of(long[] values){
+        var result = new LongSet(values.length);
+
+        for(var value : values){
+            result.add(value);
+        }
+
+        return result;
+    }
+
+    private int indexOf(long key){
+        int mask = keys.length - 1;
+        int i = LongObjectMap.hash(key) & mask;
+
+        while(used[i] && (keys[i] != key)){
+            i = (i + 1) & mask;
+        }
+
+        return i;
+    }
+
+    public boolean contains(long key){
+        return used[indexOf(key)];
+    }
+
+    /**
+     * @return true if the key is added.
+     */
+    public boolean add(long key){
+        int i = indexOf(key);
+
+        if(used[i]){
+            return false;
+        }
+
+        keys[i] = key;
+        used[i] = true;
+        size++;
+        if(size * 2 > keys.length){
+            rehash();
+        }
+
+        return true;
+    }
+
+    private void rehash(){
+        var oldKeys = keys;
+        var oldUsed = used;
+
+        keys = new long[oldKeys.length * 2];
+        used = new boolean[oldUsed.length * 2];
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldUsed[i]){
+                int j = indexOf(oldKeys[i]);
+                keys[j] = oldKeys[i];
+                used[j] = true;
+            }
+        }
+
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public long[] toArray(){
+        var result = new long[size];
+        int j = 0;
+
+        for(int i = 0; i < keys.length; i++){
+            if(used[i]){
+                result[j++] = keys[i];
+            }
+        }
+
+        return result;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+/**
+ * Problem which is found in resilient parsing.
+ *
+ * @author yasuenag
+ */
+public class ParseDiagnostic {
+
+    private static final int MAX_LINE_LENGTH = 200;
+
+    private final long lineNumber;
+
+    private final String message;
+
+    private final String line;
+
+    public ParseDiagnostic(long lineNumber, String message, String line){
+        this.lineNumber = lineNumber;
+        this.message = message;
+        this.line = ((line != null) && (line.length() > MAX_LINE_LENGTH)) ? line.substring(0, MAX_LINE_LENGTH) + "..." : line;
+    }
+
+    /**
+     * @return 1-origin line number in the file.
+     */
+    public long getLineNumber(){
+        return lineNumber;
+    }
+
+    public String getMessage(){
+        return message;
+    }
+
+    /**
+     * @return the line which causes the problem, or null if it is EOF.
+     */
+    public String getLine(){
+        return line;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + lineNumber + ": " + message + ((line == null) ? "" : " (" + line + ")");
+    }
+
+}
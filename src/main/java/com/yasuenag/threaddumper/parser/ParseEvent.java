@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for parsing a file.
+ *
+ * @author yasuenag
+ */
+@Name("com.yasuenag.threaddumper.Parse")
+@Label("Parse Thread Dump File")
+@Category("ThreadDumper")
+@Description("Parsing a thread dump file")
+class ParseEvent extends Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Lines")
+    long lines;
+
+    @Label("Thread Dumps")
+    long dumps;
+
+    @Label("Threads")
+    long threads;
+
+    @Label("Frames")
+    long frames;
+
+    @Label("Unmatched Lines")
+    @Description("Lines which matched no pattern")
+    long unmatchedLines;
+
+    @Label("Read Time")
+    @Timespan
+    long readNanos;
+
+    @Label("Match Time")
+    @Description("Matching lines and building thread dumps")
+    @Timespan
+    long matchNanos;
+
+    @Label("Consume Time")
+    @Description("Handling parsed thread dumps by the caller")
+    @Timespan
+    long consumeNanos;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics of parsing. Statistics of each file are merged into the
+ * statistics of the whole load, so merge() is thread-safe.
+ *
+ * @author yasuenag
+ */
+public class ParseStatistics {
+
+    public static final String PHASE_READ = "read";
+
+    /**
+     * Matching lines with patterns and building thread dumps from them.
+     */
+    public static final String PHASE_MATCH = "match";
+
+    /**
+     * Handling parsed thread dumps by the caller (e.g. export, encoding call stacks).
+     */
+    public static final String PHASE_CONSUME = "consume";
+
+    public static final String PHASE_GROUP = "group";
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN;
+
+    static{
+        var bean = ManagementFactory.getThreadMXBean();
+        if((bean instanceof com.sun.management.ThreadMXBean sunBean) && sunBean.isThreadAllocatedMemorySupported()){
+            THREAD_MX_BEAN = sunBean;
+        }
+        else{
+            THREAD_MX_BEAN = null;
+        }
+    }
+
+    private long files;
+
+    private long bytes;
+
+    private long lines;
+
+    private long dumps;
+
+    private long threads;
+
+    private long frames;
+
+    private long unmatchedLines;
+
+    private long skippedDumps;
+
+    private long allocatedBytes;
+
+    private long elapsedNanos;
+
+    private final Map<String, Long> phaseNanos;
+
+    public ParseStatistics(){
+        files = 0;
+        bytes = 0;
+        lines = 0;
+        dumps = 0;
+        threads = 0;
+        frames = 0;
+        unmatchedLines = 0;
+        skippedDumps = 0;
+        allocatedBytes = 0;
+        elapsedNanos = 0;
+        phaseNanos = new LinkedHashMap<>();
+    }
+
+    /**
+     * @return allocated bytes in current thread, or -1 if it is not supported.
+     */
+    static long currentThreadAllocatedBytes(){
+        return (THREAD_MX_BEAN == null) ? -1 : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+    public synchronized void merge(ParseStatistics other){
+        files += other.files;
+        bytes += other.bytes;
+        lines += other.lines;
+        dumps += other.dumps;
+        threads += other.threads;
+        frames += other.frames;
+        unmatchedLines += other.unmatchedLines;
+        skippedDumps += other.skippedDumps;
+        allocatedBytes += other.allocatedBytes;
+        other.phaseNanos.forEach(this::addPhase);
+    }
+
+    void addFile(long bytes, long lines){
+        this.files++;
+        this.bytes += bytes;
+        this.lines += lines;
+    }
+
+    void addDump(ThreadDump dump){
+        dumps++;
+        threads += dump.getThreads().size() +
+                   dump.getVirtualThreadGroups()
+                       .stream()
+                       .mapToLong(ThreadDump.VirtualThreadGroup::getCount)
+                       .sum();
+        frames += dump.getThreads()
+                      .stream()
+                      .mapToLong(t -> t.getCallFrames().size())
+                      .sum();
+        unmatchedLines += dump.getSkippedLines();
+    }
+
+    void addUnmatchedLines(long unmatchedLines){
+        this.unmatchedLines += unmatchedLines;
+    }
+
+    void addSkippedDumps(long skippedDumps){
+        this.skippedDumps += skippedDumps;
+    }
+
+    void addAllocatedBytes(long allocatedBytes){
+        this.allocatedBytes += allocatedBytes;
+    }
+
+    public synchronized void addPhase(String phase, long nanos){
+        phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * @param elapsedNanos wall-clock time of the whole load.
+     */
+    public synchronized void setElapsedNanos(long elapsedNanos){
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public synchronized long getFiles(){
+        return files;
+    }
+
+    public synchronized long getBytes(){
+        return bytes;
+    }
+
+    public synchronized long getLines(){
+        return lines;
+    }
+
+    public synchronized long getDumps(){
+        return dumps;
+    }
+
+    public synchronized long getThreads(){
+        return threads;
+    }
+
+    public synchronized long getFrames(){
+        return frames;
+    }
+
+    /**
+     * @return number of lines which matched no pattern (e.g. GC log).
+     */
+    public synchronized long getUnmatchedLines(){
+        return unmatchedLines;
+    }
+
+    /**
+     * @return number of thread dumps which are skipped because they are out of the time window.
+     */
+    public synchronized long getSkippedDumps(){
+        return skippedDumps;
+    }
+
+    /**
+     * @return allocated bytes while parsing, or 0 if it is not supported.
+     */
+    public synchronized long getAllocatedBytes(){
+        return allocatedBytes;
+    }
+
+    public synchronized long getElapsedNanos(){
+        return elapsedNanos;
+    }
+
+    /**
+     * @return total time of each phase in nanoseconds. The time is summed
+     *         up in all threads, so it might be longer than elapsed time.
+     */
+    public synchronized Map<String, Long> getPhaseNanos(){
+        return Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos));
+    }
+
+    private double perSecond(long value){
+        return (elapsedNanos == 0) ? 0.0d : value * 1_000_000_000.0d / elapsedNanos;
+    }
+
+    public synchronized double getBytesPerSecond(){
+        return perSecond(bytes);
+    }
+
+    public synchronized double getLinesPerSecond(){
+        return perSecond(lines);
+    }
+
+    public synchronized double getDumpsPerSecond(){
+        return perSecond(dumps);
+    }
+
+    public synchronized double getThreadsPerSecond(){
+        return perSecond(threads);
+    }
+
+    public synchronized double getFramesPerSecond(){
+        return perSecond(frames);
+    }
+
+    /**
+     * @return one line summary for status bar.
+     */
+    public synchronized String toSummary(){
+        return String.format("%d dumps, %d threads, %d frames from %d files (%.1f MB) in %d ms (%.1f MB/s), unmatched lines: %d",
+                             dumps, threads, frames, files, bytes / 1024.0d / 1024.0d, elapsedNanos / 1_000_000, getBytesPerSecond() / 1024.0d / 1024.0d, unmatchedLines) +
+               ((skippedDumps > 0) ? String.format(", skipped dumps: %d", skippedDumps) : "");
+    }
+
+    @Override
+    public synchronized String toString() {
+        var sb = new StringBuilder();
+
+        sb.append(String.format("files:           %d%n", files));
+        sb.append(String.format("bytes:           %d (%.1f/s)%n", bytes, getBytesPerSecond()));
+        sb.append(String.format("lines:           %d (%.1f/s)%n", lines, getLinesPerSecond()));
+        sb.append(String.format("dumps:           %d (%.1f/s)%n", dumps, getDumpsPerSecond()));
+        sb.append(String.format("threads:         %d (%.1f/s)%n", threads, getThreadsPerSecond()));
+        sb.append(String.format("frames:          %d (%.1f/s)%n", frames, getFramesPerSecond()));
+        sb.append(String.format("unmatched lines: %d%n", unmatchedLines));
+        sb.append(String.format("skipped dumps:   %d%n", skippedDumps));
+        sb.append(String.format("allocated bytes: %d%n", allocatedBytes));
+        sb.append(String.format("elapsed:         %.3f ms%n", elapsedNanos / 1_000_000.0d));
+        phaseNanos.forEach((k, v) -> sb.append(String.format("  %-14s %.3f ms%n", k + ":", v / 1_000_000.0d)));
+
+        return sb.toString();
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2019 Yasumasa Suenaga
+ * Copyright (C) 2019, 2026, Yasumasa Suenaga
  *
  * This file is part of ThreadDumper.
  *
@@ -20,9 +20,11 @@ package com.yasuenag.threaddumper.parser;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -34,27 +36,86 @@ public class ThreadDump {
         
         private final long javaThreadList;
 
-        private List<Long> javaThreads;
+        private long[] javaThreads;
+
+        private LongSet javaThreadSet;
 
         public SMRInfo(long javaThreadList){
             this.javaThreadList = javaThreadList;
-            this.javaThreads = Collections.emptyList();
+            this.javaThreads = new long[0];
+            this.javaThreadSet = new LongSet();
         }
 
         public long getJavaThreadList(){
             return javaThreadList;
         }
 
-        public void setJavaThreads(List<Long> javaThreads){
+        public void setJavaThreads(long[] javaThreads){
             this.javaThreads = javaThreads;
+            this.javaThreadSet = LongSet.of(javaThreads);
         }
 
-        public List<Long> getJavaThreads(){
+        /**
+         * @return addresses of JavaThread in _java_thread_list.
+         */
+        public long[] getJavaThreads(){
             return javaThreads;
         }
+
+        /**
+         * @return true if the JavaThread is in _java_thread_list.
+         */
+        public boolean contains(long javaThread){
+            return javaThreadSet.contains(javaThread);
+        }
+    
+    }
     
+    /**
+     * Virtual threads which have same call stack in the same thread container.
+     * They are not held as ThreadInfo to keep memory usage bounded.
+     */
+    public static class VirtualThreadGroup{
+
+        private final String container;
+
+        private final List<ThreadInfo.CallFrame> callFrames;
+
+        private final Optional<Thread.State> threadState;
+
+        private long count;
+
+        public VirtualThreadGroup(String container, List<ThreadInfo.CallFrame> callFrames, Optional<Thread.State> threadState){
+            this.container = container;
+            this.callFrames = callFrames;
+            this.threadState = threadState;
+            this.count = 0;
+        }
+
+        public String getContainer(){
+            return container;
+        }
+
+        public List<ThreadInfo.CallFrame> getCallFrames(){
+            return callFrames;
+        }
+
+        public Optional<Thread.State> getThreadState(){
+            return threadState;
+        }
+
+        public void increment(){
+            count++;
+        }
+
+        public long getCount(){
+            return count;
+        }
+
     }
     
+    private final DumpSource source;
+    
     private final LocalDateTime time;
     
     private String vmVersion;
@@ -63,18 +124,48 @@ public class ThreadDump {
 
     private final List<ThreadInfo> threads;
 
+    private final ThreadInfoStore threadInfoStore;
+
+    private final List<VirtualThreadGroup> virtualThreadGroups;
+
     private int jniGlobalRefs;
 
+    private final List<ParseDiagnostic> diagnostics;
+
+    private long skippedLines;
+
+    private LongObjectMap<ThreadInfo> lockOwners;
+
     private int weakRefs;
     
     public ThreadDump(LocalDateTime time){
+        this(DumpSource.UNKNOWN, time);
+    }
+    
+    public ThreadDump(DumpSource source, LocalDateTime time){
+        this(source, time, new ThreadInfoStore());
+    }
+    
+    /**
+     * @param threadInfoStore store for numeric attributes of threads in this thread dump.
+     */
+    public ThreadDump(DumpSource source, LocalDateTime time, ThreadInfoStore threadInfoStore){
+        this.source = source;
         this.time = time;
         this.threads = new ArrayList<>();
+        this.threadInfoStore = threadInfoStore;
+        this.virtualThreadGroups = new ArrayList<>();
+        this.diagnostics = new ArrayList<>();
 
         vmVersion = null;
         smrInfo = Optional.empty();
         jniGlobalRefs = 0;
         weakRefs = 0;
+        skippedLines = 0;
+    }
+
+    public DumpSource getSource(){
+        return source;
     }
 
     public LocalDateTime getTime(){
@@ -101,6 +192,45 @@ public class ThreadDump {
         return threads;
     }
 
+    /**
+     * @return store for numeric attributes of threads in this thread dump.
+     *         Use it for aggregations over all threads.
+     */
+    public ThreadInfoStore getThreadInfoStore(){
+        return threadInfoStore;
+    }
+
+    public List<VirtualThreadGroup> getVirtualThreadGroups(){
+        return virtualThreadGroups;
+    }
+
+    /**
+     * @return number of virtual threads including grouped ones.
+     */
+    public long getVirtualThreadCount(){
+        return threads.stream().filter(ThreadInfo::isVirtual).count() +
+               virtualThreadGroups.stream().mapToLong(VirtualThreadGroup::getCount).sum();
+    }
+
+    /**
+     * @return mounted virtual threads grouped by thread ID of the carrier thread.
+     */
+    public Map<Long, List<ThreadInfo>> getVirtualThreadsByCarrier(){
+        return threads.stream()
+                      .filter(t -> t.isVirtual() && t.getCarrier().isPresent())
+                      .collect(Collectors.groupingBy(t -> t.getCarrier().getAsLong()));
+    }
+
+    /**
+     * @return number of threads in each thread container including grouped virtual threads.
+     */
+    public Map<String, Long> getThreadCountByContainer(){
+        Map<String, Long> result = threads.stream()
+                                          .collect(Collectors.groupingBy(t -> t.getContainer().orElse(""), TreeMap::new, Collectors.counting()));
+        virtualThreadGroups.forEach(g -> result.merge(g.getContainer(), g.getCount(), Long::sum));
+        return result;
+    }
+
     public void setJniGlobalRefs(int jniGlobalRefs){
         this.jniGlobalRefs = jniGlobalRefs;
     }
@@ -117,6 +247,71 @@ public class ThreadDump {
         return weakRefs;
     }
 
+    /**
+     * Find the thread which holds the monitor. The index of the monitors is
+     * built at the first call.
+     *
+     * @param address address of the monitor object.
+     * @return the thread which has "locked" the monitor.
+     */
+    public Optional<ThreadInfo> getLockOwner(long address){
+        return Optional.ofNullable(getLockOwners().get(address));
+    }
+
+    // Object.wait() releases the monitor, but the frame which entered it
+    // still shows "locked".
+    private static boolean isReleased(List<ThreadInfo.LockInfo> locks, long address){
+        for(var lock : locks){
+            if(lock.getAddress() == address){
+                var description = lock.getDescription();
+                if(description.equals("waiting on") || description.equals("waiting to re-lock in wait()")){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return index from the address of the monitor to the thread which has
+     *         "locked" it and is not waiting on it. It is built in one pass
+     *         over all threads at the first call, and it must not be modified.
+     */
+    public synchronized LongObjectMap<ThreadInfo> getLockOwners(){
+
+        if(lockOwners == null){
+            lockOwners = new LongObjectMap<>();
+            for(var thread : threads){
+                var locks = thread.getLocks();
+                for(var lock : locks){
+                    if(lock.getDescription().equals("locked") && !isReleased(locks, lock.getAddress())){
+                        lockOwners.put(lock.getAddress(), thread);
+                    }
+                }
+            }
+        }
+
+        return lockOwners;
+    }
+
+    /**
+     * @return problems which are found in resilient parsing.
+     */
+    public List<ParseDiagnostic> getDiagnostics(){
+        return diagnostics;
+    }
+
+    public void incrementSkippedLines(){
+        skippedLines++;
+    }
+
+    /**
+     * @return number of lines which are not a part of thread dump (e.g. GC log) in this thread dump.
+     */
+    public long getSkippedLines(){
+        return skippedLines;
+    }
+
     @Override
     public String toString() {
         return time.toString() + " (" + threads.size() + " threads)";
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2019 Yasumasa Suenaga
+ * Copyright (C) 2019, 2026, Yasumasa Suenaga
  *
  * This file is part of ThreadDumper.
  *
@@ -25,8 +25,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -36,12 +39,27 @@ import java.util.stream.Collectors;
  */
 public class ThreadDumpParser {
     
+    public static enum Mode{
+        /** Throw IllegalArgumentException at the first problem. */
+        STRICT,
+        /** Record problems to ThreadDump and resynchronize on the next header. */
+        RESILIENT
+    }
+
+    private static final int MAX_DIAGNOSTICS = 100;
+
+    // "<PID>:" at the first line of jcmd output
+    private static final Pattern JCMD_PID_PATTERN = Pattern.compile("^(?<pid>\\d+):$");
+
     // yyyy-mm-dd HH:MM:ss
     private static final Pattern DATETIME_PATTERN = Pattern.compile("^\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}$");
 
+    private static final Pattern VM_BANNER_PATTERN = Pattern.compile("^Full thread dump (?<vmVersion>.+):$");
+
     private static final Pattern THREAD_LIST_ADDR_PATTERN = Pattern.compile("^_java_thread_list=(0x[0-9a-f]+),.*$");
 
-    private static final Pattern THREAD_INFO_PATTERN = Pattern.compile("^\"(?<name>.+)\"( #(?<id>\\d+))?(?<daemon> daemon)?( prio=(?<prio>\\d+))?( os_prio=(?<osPrio>\\d+))?( cpu=(?<cpu>[0-9\\.]+)ms elapsed=(?<elapsed>[0-9\\.]+)s)?( allocated=(?<allocated>[0-9BKMG]+))?( defined_classes=(?<definedClasses>\\d+))? tid=(?<tid>0x[0-9a-f]+) nid=(?<nid>0x[0-9a-f]+) (?<state>.+?)(\\s+\\[(?<lastJavaSP>0x[0-9a-f]+)\\])?$");
+    // nid is decimal and "[nid]" follows "#id" since JDK 19
+    private static final Pattern THREAD_INFO_PATTERN = Pattern.compile("^\"(?<name>.+)\"( #(?<id>\\d+))?( \\[\\d+\\])?(?<daemon> daemon)?( prio=(?<prio>\\d+))?( os_prio=(?<osPrio>-?\\d+))?( cpu=(?<cpu>[0-9\\.]+)ms elapsed=(?<elapsed>[0-9\\.]+)s)?( allocated=(?<allocated>[0-9BKMG]+))?( defined_classes=(?<definedClasses>\\d+))? tid=(?<tid>0x[0-9a-f]+) nid=(?<nid>0x[0-9a-f]+|\\d+) (?<state>.+?)(\\s+\\[(?<lastJavaSP>0x[0-9a-f]+)\\])?$");
 
     private static final Pattern THREAD_STATE_PATTERN = Pattern.compile("^\\s+java\\.lang\\.Thread\\.State: (?<threadState>[A-Z_]+)( \\((?<threadStateDescription>.+)\\))?$");
   
@@ -49,82 +67,319 @@ public class ThreadDumpParser {
 
     private static final Pattern LOCK_PATTERN = Pattern.compile("^\\s+- (?<description>.+) <(?<address>0x[0-9a-f]+)> \\(a (?<lockClass>.+)\\)$");
 
+    private static final Pattern OWNABLE_SYNCHRONIZERS_PATTERN = Pattern.compile("^\\s+Locked ownable synchronizers:$");
+
+    private static final Pattern OWNABLE_SYNCHRONIZER_PATTERN = Pattern.compile("^\\s+- .+$");
+
     private static final Pattern REFS_PATTERN = Pattern.compile("^JNI global refs: (?<jniGlobalRefs>\\d+), weak refs: (?<weakRefs>\\d+)$");
 
+    // JDK 8
+    private static final Pattern LEGACY_REFS_PATTERN = Pattern.compile("^JNI global references: (?<jniGlobalRefs>\\d+)$");
+
+    /**
+     * Parse thread dumps in resilient mode. Each file is parsed in parallel.
+     */
     public static List<ThreadDump> parse(List<Path> files){
-        return files.stream()
-                    .map(ThreadDumpParser::parseEachFile)
-                    .flatMap(List::stream)
-                    .collect(Collectors.toList());
+        return parse(files, Mode.RESILIENT);
+    }
+
+    /**
+     * Parse thread dumps. Each file is parsed in parallel.
+     */
+    public static List<ThreadDump> parse(List<Path> files, Mode mode){
+        return parse(files, mode, new ParseStatistics());
+    }
+
+    /**
+     * Parse thread dumps. Each file is parsed in parallel.
+     *
+     * @param statistics statistics of this parsing are added to it.
+     */
+    public static List<ThreadDump> parse(List<Path> files, Mode mode, ParseStatistics statistics){
+        return parse(files, mode, TimeWindow.ALL, statistics);
+    }
+
+    /**
+     * Parse thread dumps in the time window. Each file is parsed in parallel.
+     * Thread dumps out of the window are skipped without parsing their threads.
+     *
+     * @param statistics statistics of this parsing are added to it.
+     */
+    public static List<ThreadDump> parse(List<Path> files, Mode mode, TimeWindow window, ParseStatistics statistics){
+        long start = System.nanoTime();
+        var result = files.parallelStream()
+                          .map(f -> parseEachFile(f, mode, window, statistics))
+                          .flatMap(List::stream)
+                          .collect(Collectors.toList());
+        statistics.setElapsedNanos(System.nanoTime() - start);
+
+        return result;
+    }
+
+    /**
+     * Parse thread dumps in parallel, and pass each of them to the consumer
+     * as soon as it is parsed. Parsed thread dumps are not held in this method.
+     *
+     * @param consumer it might be called from multiple threads concurrently.
+     */
+    public static void parse(List<Path> files, Mode mode, ParseStatistics statistics, Consumer<ThreadDump> consumer){
+        parse(files, mode, TimeWindow.ALL, statistics, consumer);
+    }
+
+    /**
+     * Parse thread dumps in the time window in parallel, and pass each of
+     * them to the consumer as soon as it is parsed.
+     *
+     * @param consumer it might be called from multiple threads concurrently.
+     */
+    public static void parse(List<Path> files, Mode mode, TimeWindow window, ParseStatistics statistics, Consumer<ThreadDump> consumer){
+        long start = System.nanoTime();
+        files.parallelStream()
+             .forEach(f -> parseEachFile(f, mode, window, statistics, consumer));
+        statistics.setElapsedNanos(System.nanoTime() - start);
     }
 
     public static List<ThreadDump> parseEachFile(Path file){
+        return parseEachFile(file, Mode.RESILIENT);
+    }
+
+    public static List<ThreadDump> parseEachFile(Path file, Mode mode){
+        return parseEachFile(file, mode, new ParseStatistics());
+    }
+
+    /**
+     * @param statistics statistics of this file are added to it.
+     */
+    public static List<ThreadDump> parseEachFile(Path file, Mode mode, ParseStatistics statistics){
+        return parseEachFile(file, mode, TimeWindow.ALL, statistics);
+    }
+
+    /**
+     * @param statistics statistics of this file are added to it.
+     */
+    public static List<ThreadDump> parseEachFile(Path file, Mode mode, TimeWindow window, ParseStatistics statistics){
         List<ThreadDump> result = new ArrayList<>();
+        parseEachFile(file, mode, window, statistics, result::add);
+        return result;
+    }
+
+    private static void parseEachFile(Path file, Mode mode, TimeWindow window, ParseStatistics statistics, Consumer<ThreadDump> consumer){
+        var event = new ParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long startAllocated = ParseStatistics.currentThreadAllocatedBytes();
+
+        var fileStatistics = new ParseStatistics();
+        var source = DumpSource.fromPath(file);
+        long readNanos = 0;
+        long consumeNanos = 0;
 
         try(var reader = Files.newBufferedReader(file)){
-            ThreadDump dump;
-            while((dump = parseThreadDump(reader)) != null){
-                result.add(dump);
+
+            if(isJson(reader)){
+                var dump = JsonThreadDumpParser.parse(source, reader, window);
+                if(dump == null){
+                    fileStatistics.addSkippedDumps(1);
+                }
+                else{
+                    fileStatistics.addDump(dump);
+                    long consumeStart = System.nanoTime();
+                    consumer.accept(dump);
+                    consumeNanos += System.nanoTime() - consumeStart;
+                }
+                fileStatistics.addFile(Files.size(file), 0);
+            }
+            else{
+                var lineReader = new LineReader(reader);
+                ThreadDump dump;
+                while((dump = parseThreadDump(source, lineReader, mode, window, fileStatistics)) != null){
+                    fileStatistics.addDump(dump);
+                    source = dump.getSource();
+                    long consumeStart = System.nanoTime();
+                    consumer.accept(dump);
+                    consumeNanos += System.nanoTime() - consumeStart;
+                }
+                fileStatistics.addFile(Files.size(file), lineReader.getLineNumber());
+                readNanos = lineReader.getReadNanos();
             }
 
-            return result;
         }
         catch(IOException e){
             throw new UncheckedIOException(e);
         }
 
+        long elapsed = System.nanoTime() - start;
+        long matchNanos = elapsed - readNanos - consumeNanos;
+        fileStatistics.addPhase(ParseStatistics.PHASE_READ, readNanos);
+        fileStatistics.addPhase(ParseStatistics.PHASE_MATCH, matchNanos);
+        fileStatistics.addPhase(ParseStatistics.PHASE_CONSUME, consumeNanos);
+        if(startAllocated >= 0){
+            fileStatistics.addAllocatedBytes(ParseStatistics.currentThreadAllocatedBytes() - startAllocated);
+        }
+        statistics.merge(fileStatistics);
+
+        event.end();
+        if(event.shouldCommit()){
+            event.file = file.toString();
+            event.bytes = fileStatistics.getBytes();
+            event.lines = fileStatistics.getLines();
+            event.dumps = fileStatistics.getDumps();
+            event.threads = fileStatistics.getThreads();
+            event.frames = fileStatistics.getFrames();
+            event.unmatchedLines = fileStatistics.getUnmatchedLines();
+            event.readNanos = readNanos;
+            event.matchNanos = matchNanos;
+            event.consumeNanos = consumeNanos;
+            event.allocatedBytes = fileStatistics.getAllocatedBytes();
+            event.commit();
+        }
+
     }
 
-    private static ThreadDump parseThreadDump(BufferedReader reader) throws IOException{
-        String line;
+    /**
+     * Check whether the content is JSON thread dump.
+     * Position of the reader is not changed.
+     */
+    private static boolean isJson(BufferedReader reader) throws IOException{
+        reader.mark(1024);
 
-        // Seek beginning of thread dump
+        int c;
+        int count = 0;
         do{
-            line = reader.readLine();
-        }while((line != null) && !DATETIME_PATTERN.matcher(line).matches());
+            c = reader.read();
+            count++;
+        }while(Character.isWhitespace(c) && (count < 1024));
 
-        if(line == null){
-            return null;
+        reader.reset();
+        return c == '{';
+    }
+
+    private static void report(ThreadDump dump, LineReader reader, Mode mode, String message, String line){
+        var diagnostic = new ParseDiagnostic(reader.getLineNumber(), message, line);
+
+        if(mode == Mode.STRICT){
+            throw new IllegalArgumentException(diagnostic.toString());
+        }
+        else if(dump.getDiagnostics().size() < MAX_DIAGNOSTICS){
+            dump.getDiagnostics().add(diagnostic);
         }
 
-        var datetime = LocalDateTime.parse(line.replace(' ', 'T'));
-        ThreadDump result = new ThreadDump(datetime);
+    }
 
-        line = reader.readLine();
-        result.setVmVersion(line.substring(17, line.length() - 1)); // chomp banner string
+    private static boolean isThreadDumpHeader(String line){
+        return DATETIME_PATTERN.matcher(line).matches();
+    }
 
-        line = skipEmptyLine(reader);
-        if(line == null){
-            return null;
-        }
-        else if(line.equals("Threads class SMR info:")){
-            result.setSMRInfo(parseSMRInfo(reader));
-            line = skipEmptyLine(reader);
+    private static ThreadDump parseThreadDump(DumpSource source, LineReader reader, Mode mode, TimeWindow window, ParseStatistics statistics) throws IOException{
+        String line;
+        LocalDateTime datetime;
+
+        while(true){
+
+            // Seek beginning of thread dump
+            while(((line = reader.readLine()) != null) && !isThreadDumpHeader(line)){
+                var pidMatcher = JCMD_PID_PATTERN.matcher(line);
+                if(pidMatcher.matches()){
+                    source = source.withPid(Long.parseLong(pidMatcher.group("pid")));
+                }
+                else if(!line.isEmpty()){
+                    statistics.addUnmatchedLines(1);
+                }
+            }
 
             if(line == null){
-                return result;
+                return null;
+            }
+
+            datetime = LocalDateTime.parse(line.replace(' ', 'T'));
+            if(window.contains(datetime)){
+                break;
             }
 
+            // Skip the body of the thread dump out of the window until next timestamp.
+            // PID of jcmd might be in front of it, so the line before it is kept.
+            statistics.addSkippedDumps(1);
+            String prev = null;
+            while(((line = reader.readLine()) != null) && !isThreadDumpHeader(line)){
+                prev = line;
+            }
+            if(line != null){
+                if((prev != null) && !prev.isEmpty() && Character.isDigit(prev.charAt(0))){
+                    var pidMatcher = JCMD_PID_PATTERN.matcher(prev);
+                    if(pidMatcher.matches()){
+                        source = source.withPid(Long.parseLong(pidMatcher.group("pid")));
+                    }
+                }
+                reader.unread(line);
+            }
         }
 
-        ThreadInfo threadInfo;
-        while((threadInfo = parseThread(datetime, line, reader)) != null){
-            result.getThreads().add(threadInfo);
+        ThreadDump result = new ThreadDump(source, datetime);
+
+        line = reader.readLine();
+        if(line == null){
+            report(result, reader, mode, "Thread dump is truncated after timestamp", null);
+            return result;
+        }
+        var bannerMatcher = VM_BANNER_PATTERN.matcher(line);
+        if(bannerMatcher.matches()){
+            result.setVmVersion(bannerMatcher.group("vmVersion"));
+        }
+        else{
+            report(result, reader, mode, "VM banner is not found", line);
+            reader.unread(line);
+        }
+
+        line = skipEmptyLine(reader);
+        while(true){
+
+            if(line == null){
+                report(result, reader, mode, "Thread dump is truncated", null);
+                break;
+            }
+            else if(isThreadDumpHeader(line)){
+                report(result, reader, mode, "Thread dump is truncated before next thread dump", line);
+                reader.unread(line);
+                break;
+            }
 
-            line = reader.readLine();
             var refsMatcher = REFS_PATTERN.matcher(line);
             if(refsMatcher.matches()){
                 result.setJniGlobalRefs(Integer.parseInt(refsMatcher.group("jniGlobalRefs")));
                 result.setWeakRefs(Integer.parseInt(refsMatcher.group("weakRefs")));
                 break;
             }
+            var legacyRefsMatcher = LEGACY_REFS_PATTERN.matcher(line);
+            if(legacyRefsMatcher.matches()){
+                result.setJniGlobalRefs(Integer.parseInt(legacyRefsMatcher.group("jniGlobalRefs")));
+                break;
+            }
+
+            var headerMatcher = THREAD_INFO_PATTERN.matcher(line);
+            if(headerMatcher.matches()){
+                result.getThreads().add(parseThread(result, source, datetime, headerMatcher, reader, mode));
+            }
+            else if(line.equals("Threads class SMR info:") && result.getThreads().isEmpty()){
+                var smrInfo = parseSMRInfo(result, reader, mode);
+                if(smrInfo != null){
+                    result.setSMRInfo(smrInfo);
+                }
+            }
+            else if(OWNABLE_SYNCHRONIZERS_PATTERN.matcher(line).matches()){
+                skipOwnableSynchronizers(reader);
+            }
+            else{
+                // Interleaved output from other components (e.g. GC log)
+                result.incrementSkippedLines();
+            }
 
+            line = skipEmptyLine(reader);
         }
 
         return result;
     }
 
-    public static String skipEmptyLine(BufferedReader reader) throws IOException{
+    private static String skipEmptyLine(LineReader reader) throws IOException{
         String line;
 
         while((line = reader.readLine()) != null){
@@ -135,49 +390,114 @@ public class ThreadDumpParser {
 
         return line;
     }
+
+    public static String skipEmptyLine(BufferedReader reader) throws IOException{
+        return skipEmptyLine(new LineReader(reader));
+    }
+
+    private static void skipOwnableSynchronizers(LineReader reader) throws IOException{
+        String line;
+
+        while((line = reader.readLine()) != null){
+            if(!OWNABLE_SYNCHRONIZER_PATTERN.matcher(line).matches()){
+                reader.unread(line);
+                break;
+            }
+        }
+
+    }
     
     public static ThreadDump.SMRInfo parseSMRInfo(BufferedReader reader) throws IOException{
+        return parseSMRInfo(new ThreadDump(DumpSource.UNKNOWN, LocalDateTime.MIN, new ThreadInfoStore(1)), new LineReader(reader), Mode.RESILIENT);
+    }
+
+    private static ThreadDump.SMRInfo parseSMRInfo(ThreadDump dump, LineReader reader, Mode mode) throws IOException{
         String line;
 
-        line = reader.readLine();
-        if(line == null){
-            return null;
+        Matcher addrMatcher = null;
+        while(((line = reader.readLine()) != null) && !line.isEmpty() && !isThreadDumpHeader(line)){
+            addrMatcher = THREAD_LIST_ADDR_PATTERN.matcher(line);
+            if(addrMatcher.matches()){
+                break;
+            }
+            dump.incrementSkippedLines();
         }
-        var addrMatcher = THREAD_LIST_ADDR_PATTERN.matcher(line);
-        if(!addrMatcher.matches()){
+        if((line == null) || !addrMatcher.matches()){
+            report(dump, reader, mode, "_java_thread_list is not found in SMR info", line);
+            if(line != null){
+                reader.unread(line);
+            }
             return null;
         }
-        var info = new ThreadDump.SMRInfo(Long.decode(addrMatcher.group(1)));
+        var info = new ThreadDump.SMRInfo(decodeAddress(addrMatcher.group(1)));
 
-        var sb = new StringBuilder();
-        while((line = reader.readLine()) != null){
+        long[] javaThreads = new long[16];
+        int numJavaThreads = 0;
+        while(true){
+            line = reader.readLine();
 
-            if(line.equals("}")){
+            if(line == null){
+                report(dump, reader, mode, "SMR info is truncated", null);
+                break;
+            }
+            else if(line.equals("}")){
                 break;
             }
+            else if(line.isEmpty() || isThreadDumpHeader(line) || THREAD_INFO_PATTERN.matcher(line).matches()){
+                report(dump, reader, mode, "SMR info is truncated", line);
+                reader.unread(line);
+                break;
+            }
+            else if(!line.startsWith("0x")){
+                dump.incrementSkippedLines();
+                continue;
+            }
+
+            for(var addr : line.split(",")){
+                addr = addr.trim();
+                if(!addr.isEmpty()){
+                    try{
+                        if(numJavaThreads == javaThreads.length){
+                            javaThreads = Arrays.copyOf(javaThreads, javaThreads.length * 2);
+                        }
+                        javaThreads[numJavaThreads++] = decodeAddress(addr);
+                    }
+                    catch(NumberFormatException e){
+                        report(dump, reader, mode, "Invalid address in SMR info", line);
+                        break;
+                    }
+                }
+            }
 
-            sb.append(line.replace(',', '\n'));
         }
         
-        info.setJavaThreads(sb.toString()
-                              .lines()
-                              .map(String::trim)
-                              .map(Long::decode)
-                              .collect(Collectors.toList()));
-
+        info.setJavaThreads(Arrays.copyOf(javaThreads, numJavaThreads));
         return info;
     }
 
     public static ThreadInfo parseThread(LocalDateTime time, String firstLine, BufferedReader reader) throws IOException{
+        return parseThread(DumpSource.UNKNOWN, time, firstLine, reader);
+    }
+
+    public static ThreadInfo parseThread(DumpSource source, LocalDateTime time, String firstLine, BufferedReader reader) throws IOException{
         var headerMatcher = THREAD_INFO_PATTERN.matcher(firstLine);
         if(!headerMatcher.matches()){
             return null;
         }
-        var info = new ThreadInfo(time,
+        return parseThread(new ThreadDump(source, time, new ThreadInfoStore(1)), source, time, headerMatcher, new LineReader(reader), Mode.RESILIENT);
+    }
+
+    private static ThreadInfo parseThread(ThreadDump dump, DumpSource source, LocalDateTime time, Matcher headerMatcher, LineReader reader, Mode mode) throws IOException{
+        var info = new ThreadInfo(dump.getThreadInfoStore(),
+                                  source,
+                                  time,
                                   headerMatcher.group("name"),
-                                  Long.decode(headerMatcher.group("tid")),
-                                  Integer.decode(headerMatcher.group("nid")),
+                                  decodeAddress(headerMatcher.group("tid")),
+                                  decodeNid(headerMatcher.group("nid")),
                                   headerMatcher.group("state"));
+        if(headerMatcher.group("id") != null){
+            info.setId(Integer.parseInt(headerMatcher.group("id")));
+        }
         if(headerMatcher.group("daemon") != null){
             info.setDaemon(true);
         }
@@ -200,29 +520,10 @@ public class ThreadDumpParser {
             info.setDefinedClasses(Long.parseLong(headerMatcher.group("definedClasses")));
         }
         if(headerMatcher.group("lastJavaSP") != null){
-            info.setLastJavaSP(Long.decode(headerMatcher.group("lastJavaSP")));
+            info.setLastJavaSP(decodeAddress(headerMatcher.group("lastJavaSP")));
         }
 
         String line;
-        line = reader.readLine();
-        if(line == null){
-            return null;
-        }
-        
-        var threadStateMatcher = THREAD_STATE_PATTERN.matcher(line);
-        if(threadStateMatcher.matches()){
-            info.setThreadState(Thread.State.valueOf(threadStateMatcher.group("threadState")));
-
-            var desc = threadStateMatcher.group("threadStateDescription");
-            if(desc != null){
-                info.setThreadStateDescription(desc);
-            }
-
-        }
-        else{
-            return info;
-        }
-
         LinkedList<ThreadInfo.CallFrame> callFrames = new LinkedList<>();
         ThreadInfo.CallFrame currentFrame = null;
         while((line = reader.readLine()) != null){
@@ -231,6 +532,26 @@ public class ThreadDumpParser {
                 break;
             }
 
+            if(info.getThreadState().isEmpty()){
+                var threadStateMatcher = THREAD_STATE_PATTERN.matcher(line);
+                if(threadStateMatcher.matches()){
+                    try{
+                        info.setThreadState(Thread.State.valueOf(threadStateMatcher.group("threadState")));
+                    }
+                    catch(IllegalArgumentException e){
+                        report(dump, reader, mode, "Unknown thread state", line);
+                        continue;
+                    }
+
+                    var desc = threadStateMatcher.group("threadStateDescription");
+                    if(desc != null){
+                        info.setThreadStateDescription(desc);
+                    }
+
+                    continue;
+                }
+            }
+
             var callFrameMatcher = CALL_FRAME_PATTERN.matcher(line);
             if(callFrameMatcher.matches()){
                 String fileName;
@@ -257,18 +578,50 @@ public class ThreadDumpParser {
 
             var lockMatcher = LOCK_PATTERN.matcher(line);
             if(lockMatcher.matches()){
+                if(currentFrame == null){
+                    report(dump, reader, mode, "Lock is found before call frame", line);
+                    continue;
+                }
                 var lock = new ThreadInfo.LockInfo(lockMatcher.group("description"),
-                                                   Long.decode(lockMatcher.group("address")),
+                                                   decodeAddress(lockMatcher.group("address")),
                                                    lockMatcher.group("lockClass"));
                 currentFrame.setLock(lock);
+                continue;
             }
 
+            if(isThreadDumpHeader(line) || THREAD_INFO_PATTERN.matcher(line).matches()){
+                // Empty line is lost - resynchronize on the header
+                if(info.getThreadState().isPresent()){
+                    report(dump, reader, mode, "Call stack is truncated", line);
+                }
+                reader.unread(line);
+                break;
+            }
+
+            dump.incrementSkippedLines();
         }
 
         info.setCallFrames(callFrames);
         return info;
     }
         
+    /**
+     * Decode "0x..." without boxing.
+     */
+    private static long decodeAddress(String str){
+        if(!str.startsWith("0x")){
+            throw new NumberFormatException("Not an address: " + str);
+        }
+        return Long.parseUnsignedLong(str, 2, str.length(), 16);
+    }
+
+    /**
+     * Decode nid without boxing. It is hexadecimal until JDK 18, and decimal since JDK 19.
+     */
+    private static int decodeNid(String str){
+        return str.startsWith("0x") ? Integer.parseUnsignedInt(str, 2, str.length(), 16) : Integer.parseInt(str);
+    }
+
     private static long convertToBytes(String str){
         long number = Long.parseLong(str.substring(0, str.length() - 1));
         String suffix = str.substring(str.length() - 1);
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2019 Yasumasa Suenaga
+ * Copyright (C) 2019, 2026, Yasumasa Suenaga
  *
  * This file is part of ThreadDumper.
  *
@@ -19,7 +19,9 @@
 package com.yasuenag.threaddumper.parser;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalDouble;
@@ -84,14 +86,28 @@ public class ThreadInfo {
 
     }
     
+    /**
+     * Call frame in the stack. Frames which are interned in FrameTable are
+     * shared by decoded stacks, so they are immutable.
+     */
     public static class CallFrame{
         
         private final StackTraceElement stackTraceElement;
 
+        private final boolean shared;
+
         private Optional<LockInfo> lock;
 
         public CallFrame(String declaringClass, String moduleName, String moduleVersion, String methodName, String fileName, int lineNumber){
-            stackTraceElement = new StackTraceElement(null, moduleName, moduleVersion, declaringClass, methodName, fileName, lineNumber);
+            this(new StackTraceElement(null, moduleName, moduleVersion, declaringClass, methodName, fileName, lineNumber), false);
+        }
+
+        /**
+         * @param shared true if this frame is shared by decoded stacks.
+         */
+        CallFrame(StackTraceElement stackTraceElement, boolean shared){
+            this.stackTraceElement = stackTraceElement;
+            this.shared = shared;
             lock = Optional.empty();
         }
 
@@ -99,7 +115,13 @@ public class ThreadInfo {
             return stackTraceElement;
         }
 
+        /**
+         * @throws IllegalStateException if this frame is shared by decoded stacks.
+         */
         public void setLock(LockInfo lock){
+            if(shared){
+                throw new IllegalStateException("Frame in FrameTable cannot be modified: " + stackTraceElement);
+            }
             this.lock = Optional.of(lock);
         }
         
@@ -133,25 +155,15 @@ public class ThreadInfo {
         
     }
     
-    private final LocalDateTime time;
-
-    private final String name;
+    private final ThreadInfoStore store;
 
-    private OptionalInt id;
+    private final int row;
 
-    private boolean daemon;
+    private final DumpSource source;
 
-    private OptionalInt prio;
-
-    private OptionalInt osPrio;
-
-    private OptionalDouble cpu;
-
-    private OptionalDouble elapsed;
-
-    private OptionalLong allocated;
+    private final LocalDateTime time;
 
-    private OptionalLong definedClasses;
+    private final String name;
     
     private final long tid;
 
@@ -159,15 +171,55 @@ public class ThreadInfo {
 
     private final String state;
 
-    private OptionalLong lastJavaSP;
+    private String threadStateDescription;
+
+    private String container;
+
+    // null if it is encoded, or paged out to frameStore
+    private volatile LinkedList<CallFrame> callFrames;
+
+    // null if it is not encoded, or paged out to frameStore
+    private volatile EncodedStack encodedStack;
+
+    // null if call frames are not managed by FrameStore
+    private volatile FrameStore frameStore;
 
-    private Optional<Thread.State> threadState;
+    // set when resident call frames are accessed without lock of frameStore
+    private volatile boolean referenced;
 
-    private Optional<String> threadStateDescription;
+    // position in the file of frameStore, or -1 if it is not written yet.
+    // They are guarded by frameStore.
+    private long frameOffset;
 
-    private LinkedList<CallFrame> callFrames;
+    private int frameLength;
     
+    /**
+     * @deprecated It allocates ThreadInfoStore for each thread.
+     *             Use {@link #ThreadInfo(ThreadInfoStore, DumpSource, LocalDateTime, String, long, int, String)}
+     *             with the store of the thread dump.
+     */
+    @Deprecated
     public ThreadInfo(LocalDateTime time, String name, long tid, int nid, String state){
+        this(DumpSource.UNKNOWN, time, name, tid, nid, state);
+    }
+    
+    /**
+     * @deprecated It allocates ThreadInfoStore for each thread.
+     *             Use {@link #ThreadInfo(ThreadInfoStore, DumpSource, LocalDateTime, String, long, int, String)}
+     *             with the store of the thread dump.
+     */
+    @Deprecated
+    public ThreadInfo(DumpSource source, LocalDateTime time, String name, long tid, int nid, String state){
+        this(new ThreadInfoStore(1), source, time, name, tid, nid, state);
+    }
+    
+    /**
+     * @param store store for numeric attributes. New row is added to it.
+     */
+    public ThreadInfo(ThreadInfoStore store, DumpSource source, LocalDateTime time, String name, long tid, int nid, String state){
+        this.store = store;
+        this.row = store.addRow();
+        this.source = source;
         this.time = time;
         this.name = name;
         this.tid = tid;
@@ -175,17 +227,27 @@ public class ThreadInfo {
         this.state = state;
 
         callFrames = new LinkedList<>();
-        id = OptionalInt.empty();
-        daemon = false;
-        prio = OptionalInt.empty();
-        osPrio = OptionalInt.empty();
-        cpu = OptionalDouble.empty();
-        elapsed = OptionalDouble.empty();
-        allocated = OptionalLong.empty();
-        definedClasses = OptionalLong.empty();
-        lastJavaSP = OptionalLong.empty();
-        threadState = Optional.empty();
-        threadStateDescription = Optional.empty();
+        encodedStack = null;
+        frameStore = null;
+        frameOffset = -1;
+        frameLength = 0;
+        threadStateDescription = null;
+        container = null;
+    }
+
+    public ThreadInfoStore getStore(){
+        return store;
+    }
+
+    /**
+     * @return index of the row in ThreadInfoStore.
+     */
+    public int getRow(){
+        return row;
+    }
+  
+    public DumpSource getSource(){
+        return source;
     }
   
     public LocalDateTime getTime(){
@@ -197,67 +259,67 @@ public class ThreadInfo {
     }
 
     public void setId(int id){
-        this.id = OptionalInt.of(id);
+        store.setId(row, id);
     }
 
     public OptionalInt getId(){
-        return id;
+        return store.isPresent(ThreadInfoStore.ID, row) ? OptionalInt.of(store.getId(row)) : OptionalInt.empty();
     }
 
     public void setDaemon(boolean daemon){
-        this.daemon = daemon;
+        store.setDaemon(row, daemon);
     }
 
     public boolean isDaemon(){
-        return daemon;
+        return store.isDaemon(row);
     }
     
     public void setPrio(int prio){
-        this.prio = OptionalInt.of(prio);
+        store.setPrio(row, prio);
     }
 
     public OptionalInt getPrio(){
-        return prio;
+        return store.isPresent(ThreadInfoStore.PRIO, row) ? OptionalInt.of(store.getPrio(row)) : OptionalInt.empty();
     }
     
     public void setOsPrio(int osPrio){
-        this.osPrio = OptionalInt.of(osPrio);
+        store.setOsPrio(row, osPrio);
     }
 
     public OptionalInt getOsPrio(){
-        return osPrio;
+        return store.isPresent(ThreadInfoStore.OS_PRIO, row) ? OptionalInt.of(store.getOsPrio(row)) : OptionalInt.empty();
     }
     
     public void setCpu(double cpu){
-        this.cpu = OptionalDouble.of(cpu);
+        store.setCpu(row, cpu);
     }
 
     public OptionalDouble getCpu(){
-        return cpu;
+        return store.isPresent(ThreadInfoStore.CPU, row) ? OptionalDouble.of(store.getCpu(row)) : OptionalDouble.empty();
     }
     
     public void setElapsed(double elapsed){
-        this.elapsed = OptionalDouble.of(elapsed);
+        store.setElapsed(row, elapsed);
     }
 
     public OptionalDouble getElapsed(){
-        return elapsed;
+        return store.isPresent(ThreadInfoStore.ELAPSED, row) ? OptionalDouble.of(store.getElapsed(row)) : OptionalDouble.empty();
     }
 
     public void setAllocated(long allocated){
-        this.allocated = OptionalLong.of(allocated);
+        store.setAllocated(row, allocated);
     }
 
     public OptionalLong getAllocated(){
-        return allocated;
+        return store.isPresent(ThreadInfoStore.ALLOCATED, row) ? OptionalLong.of(store.getAllocated(row)) : OptionalLong.empty();
     }
 
     public void setDefinedClasses(long definedClasses){
-        this.definedClasses = OptionalLong.of(definedClasses);
+        store.setDefinedClasses(row, definedClasses);
     }
 
     public OptionalLong getDefinedClasses(){
-        return definedClasses;
+        return store.isPresent(ThreadInfoStore.DEFINED_CLASSES, row) ? OptionalLong.of(store.getDefinedClasses(row)) : OptionalLong.empty();
     }
 
     public long getTid(){
@@ -273,37 +335,186 @@ public class ThreadInfo {
     }
 
     public void setLastJavaSP(long lastJavaSP){
-        this.lastJavaSP = OptionalLong.of(lastJavaSP);
+        store.setLastJavaSP(row, lastJavaSP);
     }
 
     public OptionalLong getLastJavaSP(){
-        return lastJavaSP;
+        return store.isPresent(ThreadInfoStore.LAST_JAVA_SP, row) ? OptionalLong.of(store.getLastJavaSP(row)) : OptionalLong.empty();
     }
 
     public void setThreadState(Thread.State threadState){
-        this.threadState = Optional.of(threadState);
+        store.setThreadState(row, threadState);
     }
 
     public Optional<Thread.State> getThreadState(){
-        return threadState;
+        return store.isPresent(ThreadInfoStore.THREAD_STATE, row) ? Optional.of(store.getThreadState(row)) : Optional.empty();
     }
     
     public void setThreadStateDescription(String threadStateDescription){
-        this.threadStateDescription = Optional.of(threadStateDescription);
+        this.threadStateDescription = threadStateDescription;
     }
 
     public Optional<String> getThreadStateDescription(){
-        return threadStateDescription;
-  }
+        return Optional.ofNullable(threadStateDescription);
+    }
+
+    public void setVirtual(boolean virtual){
+        store.setVirtual(row, virtual);
+    }
+
+    public boolean isVirtual(){
+        return store.isVirtual(row);
+    }
+
+    /**
+     * @param carrier thread ID of the carrier thread if this virtual thread is mounted.
+     */
+    public void setCarrier(long carrier){
+        store.setCarrier(row, carrier);
+    }
+
+    public OptionalLong getCarrier(){
+        return store.isPresent(ThreadInfoStore.CARRIER, row) ? OptionalLong.of(store.getCarrier(row)) : OptionalLong.empty();
+    }
+
+    /**
+     * @param container name of thread container (e.g. ExecutorService) which this thread belongs to.
+     */
+    public void setContainer(String container){
+        this.container = container;
+    }
+
+    public Optional<String> getContainer(){
+        return Optional.ofNullable(container);
+    }
 
+    /**
+     * Call frames must not be modified via the list which is returned.
+     * Modifications are lost if the stack is encoded or managed by FrameStore,
+     * so build new list and pass it to {@link #setCallFrames(LinkedList)}.
+     *
+     * @return call frames. They are loaded from FrameStore if they are paged out.
+     *         If the stack is encoded, decoded copy is returned.
+     */
     public LinkedList<CallFrame> getCallFrames(){
-        return callFrames;
+        var store = frameStore;
+        if(store != null){
+            return store.load(this);
+        }
+        var encoded = encodedStack;
+        return (encoded == null) ? callFrames : encoded.decode();
     }
 
+    /**
+     * Replace call frames. The thread is unregistered from FrameStore, and
+     * encoded stack is discarded.
+     */
     public void setCallFrames(LinkedList<CallFrame> callFrames){
+        var store = frameStore;
+        if(store != null){
+            store.unregister(this);
+        }
+        this.encodedStack = null;
         this.callFrames = callFrames;
     }
 
+    /**
+     * Encode call frames with the FrameTable to reduce memory usage.
+     * It must be called before registration to FrameStore.
+     */
+    public void encode(FrameTable table){
+        if(frameStore != null){
+            throw new IllegalStateException("Call frames are managed by FrameStore");
+        }
+        if(encodedStack == null){
+            encodedStack = table.encode(callFrames);
+            callFrames = null;
+        }
+    }
+
+    /**
+     * @return locks in call frames from the top of the stack. Encoded stack is not decoded.
+     */
+    public List<LockInfo> getLocks(){
+        var encoded = getEncodedStack();
+        if(encoded.isPresent()){
+            return encoded.get().getLocks();
+        }
+
+        List<LockInfo> result = new ArrayList<>();
+        for(var frame : getCallFrames()){
+            if(frame != null){
+                frame.getLock().ifPresent(result::add);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return encoded call stack if {@link #encode(FrameTable)} was called.
+     */
+    public Optional<EncodedStack> getEncodedStack(){
+        var store = frameStore;
+        return Optional.ofNullable((store == null) ? encodedStack : store.loadEncoded(this));
+    }
+
+    // Accessors for FrameStore. Fields except referenced are modified
+    // under lock of the store which this thread is registered to.
+
+    FrameStore getFrameStore(){
+        return frameStore;
+    }
+
+    void setFrameStore(FrameStore frameStore){
+        this.frameStore = frameStore;
+    }
+
+    /**
+     * @return call frames if they are resident and not encoded.
+     */
+    LinkedList<CallFrame> getResidentCallFrames(){
+        return callFrames;
+    }
+
+    /**
+     * @return encoded stack if it is resident.
+     */
+    EncodedStack getResidentEncodedStack(){
+        return encodedStack;
+    }
+
+    /**
+     * Set call frames which are paged in by FrameStore.
+     */
+    void setResident(LinkedList<CallFrame> callFrames, EncodedStack encodedStack){
+        this.callFrames = callFrames;
+        this.encodedStack = encodedStack;
+    }
+
+    boolean isReferenced(){
+        return referenced;
+    }
+
+    void setReferenced(boolean referenced){
+        this.referenced = referenced;
+    }
+
+    /**
+     * @return position in the file of FrameStore, or -1 if it is not written yet.
+     */
+    long getFrameOffset(){
+        return frameOffset;
+    }
+
+    int getFrameLength(){
+        return frameLength;
+    }
+
+    void setFrameLocation(long frameOffset, int frameLength){
+        this.frameOffset = frameOffset;
+        this.frameLength = frameLength;
+    }
+
     @Override
     public String toString() {
         return name + " (nid = " + nid + ")";
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.util.Arrays;
+
+/**
+ * Columnar store for numeric attributes of ThreadInfo in a thread dump.
+ *
+ * Each attribute is held in a primitive array indexed by the row of the
+ * thread, and whether the value is present or not is held in a bitmap for
+ * each attribute. ThreadInfo is a view for a row of this store, so it does
+ * not need to hold Optional objects for each attribute.
+ *
+ * @author yasuenag
+ */
+public class ThreadInfoStore {
+
+    public static final int ID = 0;
+
+    public static final int PRIO = 1;
+
+    public static final int OS_PRIO = 2;
+
+    public static final int CPU = 3;
+
+    public static final int ELAPSED = 4;
+
+    public static final int ALLOCATED = 5;
+
+    public static final int DEFINED_CLASSES = 6;
+
+    public static final int LAST_JAVA_SP = 7;
+
+    public static final int CARRIER = 8;
+
+    public static final int THREAD_STATE = 9;
+
+    public static final int DAEMON = 10;
+
+    public static final int VIRTUAL = 11;
+
+    private static final int NUM_COLUMNS = 12;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static final Thread.State[] THREAD_STATES = Thread.State.values();
+
+    private int size;
+
+    private long[][] presence;
+
+    private int[] id;
+
+    private int[] prio;
+
+    private int[] osPrio;
+
+    private double[] cpu;
+
+    private double[] elapsed;
+
+    private long[] allocated;
+
+    private long[] definedClasses;
+
+    private long[] lastJavaSP;
+
+    private long[] carrier;
+
+    private byte[] threadState;
+
+    public ThreadInfoStore(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ThreadInfoStore(int capacity){
+        size = 0;
+        presence = new long[NUM_COLUMNS][(capacity + 63) >>> 6];
+        id = new int[capacity];
+        prio = new int[capacity];
+        osPrio = new int[capacity];
+        cpu = new double[capacity];
+        elapsed = new double[capacity];
+        allocated = new long[capacity];
+        definedClasses = new long[capacity];
+        lastJavaSP = new long[capacity];
+        carrier = new long[capacity];
+        threadState = new byte[capacity];
+    }
+
+    private void grow(){
+        int capacity = Math.max(id.length * 2, 1);
+
+        for(int i = 0; i < NUM_COLUMNS; i++){
+            presence[i] = Arrays.copyOf(presence[i], (capacity + 63) >>> 6);
+        }
+        id = Arrays.copyOf(id, capacity);
+        prio = Arrays.copyOf(prio, capacity);
+        osPrio = Arrays.copyOf(osPrio, capacity);
+        cpu = Arrays.copyOf(cpu, capacity);
+        elapsed = Arrays.copyOf(elapsed, capacity);
+        allocated = Arrays.copyOf(allocated, capacity);
+        definedClasses = Arrays.copyOf(definedClasses, capacity);
+        lastJavaSP = Arrays.copyOf(lastJavaSP, capacity);
+        carrier = Arrays.copyOf(carrier, capacity);
+        threadState = Arrays.copyOf(threadState, capacity);
+    }
+
+    /**
+     * @return index of new row. All attributes in the row are absent.
+     */
+    int addRow(){
+
+        if(size == id.length){
+            grow();
+        }
+
+        return size++;
+    }
+
+    /**
+     * Remove the last row.
+     * It is used for the thread which is not held (e.g. grouped virtual thread).
+     *
+     * @throws IllegalArgumentException if the row is not the last one.
+     */
+    void removeRow(int row){
+
+        if(row != size - 1){
+            throw new IllegalArgumentException("Row " + row + " is not the last one (size = " + size + ")");
+        }
+
+        for(int i = 0; i < NUM_COLUMNS; i++){
+            presence[i][row >>> 6] &= ~(1L << row);
+        }
+        size--;
+
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean isPresent(int column, int row){
+        return (presence[column][row >>> 6] & (1L << row)) != 0;
+    }
+
+    private void setPresent(int column, int row, boolean present){
+        if(present){
+            presence[column][row >>> 6] |= 1L << row;
+        }
+        else{
+            presence[column][row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    void setId(int row, int value){
+        id[row] = value;
+        setPresent(ID, row, true);
+    }
+
+    public int getId(int row){
+        return id[row];
+    }
+
+    void setPrio(int row, int value){
+        prio[row] = value;
+        setPresent(PRIO, row, true);
+    }
+
+    public int getPrio(int row){
+        return prio[row];
+    }
+
+    void setOsPrio(int row, int value){
+        osPrio[row] = value;
+        setPresent(OS_PRIO, row, true);
+    }
+
+    public int getOsPrio(int row){
+        return osPrio[row];
+    }
+
+    void setCpu(int row, double value){
+        cpu[row] = value;
+        setPresent(CPU, row, true);
+    }
+
+    public double getCpu(int row){
+        return cpu[row];
+    }
+
+    void setElapsed(int row, double value){
+        elapsed[row] = value;
+        setPresent(ELAPSED, row, true);
+    }
+
+    public double getElapsed(int row){
+        return elapsed[row];
+    }
+
+    void setAllocated(int row, long value){
+        allocated[row] = value;
+        setPresent(ALLOCATED, row, true);
+    }
+
+    public long getAllocated(int row){
+        return allocated[row];
+    }
+
+    void setDefinedClasses(int row, long value){
+        definedClasses[row] = value;
+        setPresent(DEFINED_CLASSES, row, true);
+    }
+
+    public long getDefinedClasses(int row){
+        return definedClasses[row];
+    }
+
+    void setLastJavaSP(int row, long value){
+        lastJavaSP[row] = value;
+        setPresent(LAST_JAVA_SP, row, true);
+    }
+
+    public long getLastJavaSP(int row){
+        return lastJavaSP[row];
+    }
+
+    void setCarrier(int row, long value){
+        carrier[row] = value;
+        setPresent(CARRIER, row, true);
+    }
+
+    public long getCarrier(int row){
+        return carrier[row];
+    }
+
+    void setThreadState(int row, Thread.State value){
+        threadState[row] = (byte)value.ordinal();
+        setPresent(THREAD_STATE, row, true);
+    }
+
+    public Thread.State getThreadState(int row){
+        return THREAD_STATES[threadState[row]];
+    }
+
+    void setDaemon(int row, boolean value){
+        setPresent(DAEMON, row, value);
+    }
+
+    public boolean isDaemon(int row){
+        return isPresent(DAEMON, row);
+    }
+
+    void setVirtual(int row, boolean value){
+        setPresent(VIRTUAL, row, value);
+    }
+
+    public boolean isVirtual(int row){
+        return isPresent(VIRTUAL, row);
+    }
+
+}
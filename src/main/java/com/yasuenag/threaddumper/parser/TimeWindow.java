@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Range of time of thread dumps to be loaded. Both ends are inclusive.
+ *
+ * @author yasuenag
+ */
+public class TimeWindow {
+
+    public static final TimeWindow ALL = new TimeWindow(null, null);
+
+    private final LocalDateTime from;
+
+    private final LocalDateTime to;
+
+    /**
+     * @param from start of the window, or null if it is unbounded.
+     * @param to end of the window, or null if it is unbounded.
+     */
+    public TimeWindow(LocalDateTime from, LocalDateTime to){
+        if((from != null) && (to != null) && from.isAfter(to)){
+            throw new IllegalArgumentException("Start of time window (" + from + ") is after the end (" + to + ")");
+        }
+
+        this.from = from;
+        this.to = to;
+    }
+
+    public Optional<LocalDateTime> getFrom(){
+        return Optional.ofNullable(from);
+    }
+
+    public Optional<LocalDateTime> getTo(){
+        return Optional.ofNullable(to);
+    }
+
+    public boolean isAll(){
+        return (from == null) && (to == null);
+    }
+
+    public boolean contains(LocalDateTime time){
+        return ((from == null) || !time.isBefore(from)) && ((to == null) || !time.isAfter(to));
+    }
+
+    @Override
+    public String toString() {
+        return ((from == null) ? "" : from.toString()) + " - " + ((to == null) ? "" : to.toString());
+    }
+
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.ParseStatistics;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadDumpParser;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless HTTP server which provides analysis of thread dumps as JSON.
+ *
+ * <ul>
+ *   <li>GET /api/sessions: list of cached sessions</li>
+ *   <li>POST /api/sessions?name=&lt;file name&gt;: upload a thread dump file</li>
+ *   <li>GET, DELETE /api/sessions/{id}: summary of the session, or remove it</li>
+ *   <li>GET /api/sessions/{id}/threads: all threads</li>
+ *   <li>GET /api/sessions/{id}/threads/{nid}/timeline[?source=]: all snapshots of the thread</li>
+ *   <li>GET /api/sessions/{id}/pools: threads grouped by thread pool</li>
+ *   <li>GET /api/sessions/{id}/stuck: stuck threads</li>
+ *   <li>GET /api/sessions/{id}/flamegraph[?source=]: flame graph ({name, value, children})</li>
+ * </ul>
+ *
+ * Each request is handled in a virtual thread. Sessions are identified by
+ * the hash of the uploaded content, so the same thread dump is parsed once
+ * and shared by all clients.
+ *
+ * @author yasuenag
+ */
+public class AnalysisServer {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    public static final long DEFAULT_MAX_UPLOAD_BYTES = 1024L * 1024 * 1024;
+
+    private static class HttpError extends RuntimeException{
+
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public HttpError(int status, String message){
+            super(message);
+            this.status = status;
+        }
+
+    }
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final SessionCache cache;
+
+    private final long maxUploadBytes;
+
+    public AnalysisServer(InetSocketAddress address, long budgetBytes, long maxUploadBytes) throws IOException{
+        this.cache = new SessionCache(budgetBytes);
+        this.maxUploadBytes = maxUploadBytes;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/api/", this::handle);
+    }
+
+    public void start(){
+        server.start();
+    }
+
+    public void stop(){
+        server.stop(0);
+        executor.close();
+    }
+
+    public InetSocketAddress getAddress(){
+        return server.getAddress();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException{
+        try{
+            route(exchange);
+        }
+        catch(HttpError e){
+            sendError(exchange, e.status, e.getMessage());
+        }
+        catch(IllegalArgumentException | UncheckedIOException e){
+            sendError(exchange, 400, e.getMessage());
+        }
+        catch(RuntimeException e){
+            sendError(exchange, 500, e.toString());
+        }
+        finally{
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException{
+        var path = exchange.getRequestURI().getPath().split("/");
+        var query = parseQuery(exchange.getRequestURI().getRawQuery());
+        var method = exchange.getRequestMethod();
+
+        // path[0] is empty, path[1] is "api"
+        if((path.length < 3) || !path[2].equals("sessions")){
+            throw new HttpError(404, "Not found: " + exchange.getRequestURI().getPath());
+        }
+
+        if(path.length == 3){
+            switch(method){
+                case "GET" -> sendJson(exchange, 200, this::writeSessions);
+                case "POST" -> {
+                    var session = upload(exchange, query.getOrDefault("name", "upload.txt"));
+                    sendJson(exchange, 201, json -> writeSummary(json, session));
+                }
+                default -> throw new HttpError(405, "Method not allowed: " + method);
+            }
+            return;
+        }
+
+        var id = path[3];
+        if((path.length == 4) && method.equals("DELETE")){
+            if(!cache.remove(id)){
+                throw new HttpError(404, "Session not found: " + id);
+            }
+            sendJson(exchange, 200, json -> json.beginObject().name("id").value(id).endObject());
+            return;
+        }
+        else if(!method.equals("GET")){
+            throw new HttpError(405, "Method not allowed: " + method);
+        }
+
+        var session = cache.get(id).orElseThrow(() -> new HttpError(404, "Session not found: " + id));
+        var resource = (path.length == 4) ? "" : path[4];
+        switch(resource){
+            case "" -> sendJson(exchange, 200, json -> writeSummary(json, session));
+            case "threads" -> {
+                if(path.length == 5){
+                    sendJson(exchange, 200, json -> writeThreads(json, session.getThreads()));
+                }
+                else if((path.length == 7) && path[6].equals("timeline")){
+                    var thread = session.getThread(findSource(session, query.get("source")), parseNid(path[5]))
+                                        .orElseThrow(() -> new HttpError(404, "Thread not found: " + path[5]));
+                    sendJson(exchange, 200, json -> writeTimeline(json, thread));
+                }
+                else{
+                    throw new HttpError(404, "Not found: " + exchange.getRequestURI().getPath());
+                }
+            }
+            case "pools" -> sendJson(exchange, 200, json -> writePools(json, session.getPools()));
+            case "stuck" -> sendJson(exchange, 200, json -> writeThreads(json, session.getStuckThreads()));
+            case "flamegraph" -> {
+                var root = session.buildFlameGraph(findSource(session, query.get("source")));
+                sendJson(exchange, 200, json -> writeFlameNode(json, root));
+            }
+            default -> throw new HttpError(404, "Not found: " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery){
+        Map<String, String> result = new HashMap<>();
+        if(rawQuery == null){
+            return result;
+        }
+
+        for(var param : rawQuery.split("&")){
+            int idx = param.indexOf('=');
+            if(idx > 0){
+                result.put(URLDecoder.decode(param.substring(0, idx), StandardCharsets.UTF_8),
+                           URLDecoder.decode(param.substring(idx + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    private static int parseNid(String nid){
+        try{
+            return nid.startsWith("0x") ? Integer.parseUnsignedInt(nid.substring(2), 16) : Integer.parseInt(nid);
+        }
+        catch(NumberFormatException e){
+            throw new HttpError(400, "Invalid nid: " + nid);
+        }
+    }
+
+    private static Optional<DumpSource> findSource(Session session, String source){
+        if(source == null){
+            return Optional.empty();
+        }
+
+        return Optional.of(session.getDumps()
+                                  .stream()
+                                  .map(ThreadDump::getSource)
+                                  .filter(s -> s.toString().equals(source))
+                                  .findFirst()
+                                  .orElseThrow(() -> new HttpError(404, "Source not found: " + source)));
+    }
+
+    private Session upload(HttpExchange exchange, String name) throws IOException{
+        // File name is used to identify the JVM (see DumpSource).
+        var fileName = Path.of(name).getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+
+        MessageDigest digest;
+        try{
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+        digest.update(fileName.getBytes(StandardCharsets.UTF_8));
+
+        var dir = Files.createTempDirectory("threaddumper");
+        var file = dir.resolve(fileName);
+        try{
+            long size = 0;
+            try(var in = exchange.getRequestBody();
+                var out = Files.newOutputStream(file)){
+                var buf = new byte[64 * 1024];
+                int n;
+                while((n = in.read(buf)) != -1){
+                    size += n;
+                    if(size > maxUploadBytes){
+                        throw new HttpError(413, "Thread dump is too large: max " + maxUploadBytes + " bytes");
+                    }
+                    digest.update(buf, 0, n);
+                    out.write(buf, 0, n);
+                }
+            }
+
+            var id = HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), 16));
+            var cached = cache.get(id);
+            if(cached.isPresent()){
+                return cached.get();
+            }
+
+            var statistics = new ParseStatistics();
+            var dumps = ThreadDumpParser.parse(List.of(file), ThreadDumpParser.Mode.RESILIENT, statistics);
+            if(dumps.isEmpty()){
+                throw new HttpError(400, "Thread dump is not found in " + name);
+            }
+            return cache.put(new Session(id, fileName, dumps, statistics));
+        }
+        finally{
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @FunctionalInterface
+    private static interface JsonBody{
+        public void write(JsonWriter json) throws IOException;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, JsonBody body) throws IOException{
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        try(var writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))){
+            body.write(new JsonWriter(writer));
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException{
+        sendJson(exchange, status, json -> json.beginObject().name("error").value(message).endObject());
+    }
+
+    private void writeSessions(JsonWriter json) throws IOException{
+        json.beginObject()
+            .name("budgetBytes").value(cache.getBudgetBytes())
+            .name("usedBytes").value(cache.getUsedBytes())
+            .name("evictions").value(cache.getEvictions())
+            .name("sessions").beginArray();
+        for(var session : cache.getSessions()){
+            writeSummary(json, session);
+        }
+        json.endArray()
+            .endObject();
+    }
+
+    private static void writeSummary(JsonWriter json, Session session) throws IOException{
+        json.beginObject()
+            .name("id").value(session.getId())
+            .name("fileName").value(session.getFileName())
+            .name("dumps").value(session.getDumps().size())
+            .name("threads").value(session.getThreads().size())
+            .name("stuck").value(session.getStuckThreads().size())
+            .name("estimatedBytes").value(session.getEstimatedBytes())
+            .name("statistics").value(session.getStatistics().toSummary())
+            .name("sources").beginArray();
+        for(var source : session.getDumps().stream().map(ThreadDump::getSource).distinct().toList()){
+            json.value(source.toString());
+        }
+        json.endArray()
+            .endObject();
+    }
+
+    private static void writeThread(JsonWriter json, Session.ThreadTimeline thread) throws IOException{
+        var first = thread.getSnapshots().get(0);
+        var last = thread.getLast();
+
+        json.beginObject()
+            .name("source").value(thread.getSource().toString())
+            .name("nid").value(thread.getNid())
+            .name("name").value(thread.getName())
+            .name("pool").value(thread.getPoolName())
+            .name("state").value(last.getThreadState().map(Thread.State::name).orElse(null))
+            .name("snapshots").value(thread.getSnapshots().size())
+            .name("progress").value(thread.getStackDiff().getProgress().name())
+            .name("stuckSince").value(thread.getStackDiff().getStuckSince().map(Object::toString).orElse(null));
+        if(first.getCpu().isPresent() && last.getCpu().isPresent()){
+            json.name("cpu").value(last.getCpu().getAsDouble() - first.getCpu().getAsDouble());
+        }
+        if(first.getAllocated().isPresent() && last.getAllocated().isPresent()){
+            json.name("allocated").value(last.getAllocated().getAsLong() - first.getAllocated().getAsLong());
+        }
+        json.endObject();
+    }
+
+    private static void writeThreads(JsonWriter json, List<Session.ThreadTimeline> threads) throws IOException{
+        json.beginArray();
+        for(var thread : threads){
+            writeThread(json, thread);
+        }
+        json.endArray();
+    }
+
+    private static void writePools(JsonWriter json, Map<String, List<Session.ThreadTimeline>> pools) throws IOException{
+        json.beginArray();
+        for(var entry : pools.entrySet()){
+            Map<String, Long> states = new HashMap<>();
+            long stuck = 0;
+            for(var thread : entry.getValue()){
+                states.merge(thread.getLast().getThreadState().map(Thread.State::name).orElse("UNKNOWN"), 1L, Long::sum);
+                if(thread.getStackDiff().getStuckSince().isPresent()){
+                    stuck++;
+                }
+            }
+
+            json.beginObject()
+                .name("pool").value(entry.getKey())
+                .name("threads").value(entry.getValue().size())
+                .name("stuck").value(stuck)
+                .name("states").beginObject();
+            for(var state : states.entrySet()){
+                json.name(state.getKey()).value(state.getValue());
+            }
+            json.endObject()
+                .endObject();
+        }
+        json.endArray();
+    }
+
+    private static void writeTimeline(JsonWriter json, Session.ThreadTimeline thread) throws IOException{
+        json.beginObject()
+            .name("thread");
+        writeThread(json, thread);
+        json.name("timeline").beginArray();
+        for(var snapshot : thread.getSnapshots()){
+            json.beginObject()
+                .name("time").value(snapshot.getTime().toString())
+                .name("state").value(snapshot.getThreadState().map(Thread.State::name).orElse(null))
+                .name("detail").value(snapshot.getState());
+            if(snapshot.getCpu().isPresent()){
+                json.name("cpu").value(snapshot.getCpu().getAsDouble());
+            }
+            if(snapshot.getAllocated().isPresent()){
+                json.name("allocated").value(snapshot.getAllocated().getAsLong());
+            }
+            var entry = thread.getStackDiff().getEntry(snapshot.getTime());
+            if(entry.isPresent()){
+                json.name("changedFrames").value(entry.get().getChangedFrames());
+            }
+            json.name("frames").beginArray();
+            for(var frame : snapshot.getCallFrames()){
+                writeFrame(json, frame);
+            }
+            json.endArray()
+                .endObject();
+        }
+        json.endArray()
+            .endObject();
+    }
+
+    private static void writeFrame(JsonWriter json, ThreadInfo.CallFrame frame) throws IOException{
+        if(frame == null){
+            return;
+        }
+
+        json.beginObject()
+            .name("frame").value(frame.getStackTraceElement().toString());
+        if(frame.getLock().isPresent()){
+            var lock = frame.getLock().get();
+            json.name("lock").beginObject()
+                .name("description").value(lock.getDescription())
+                .name("address").value(String.format("0x%x", lock.getAddress()))
+                .name("class").value(lock.getLockClass())
+                .endObject();
+        }
+        json.endObject();
+    }
+
+    private static void writeFlameNode(JsonWriter json, Session.FlameNode node) throws IOException{
+        json.beginObject()
+            .name("name").value(node.getName())
+            .name("value").value(node.getValue())
+            .name("children").beginArray();
+        for(var child : node.getChildren()){
+            writeFlameNode(json, child);
+        }
+        json.endArray()
+            .endObject();
+    }
+
+    /**
+     * Start server.
+     *
+     * "--bind &lt;address&gt;" (default loopback), "--port &lt;port&gt;"
+     * (default 8080), "--memory-budget &lt;MB&gt;" (default half of max heap)
+     * and "--max-upload &lt;MB&gt;" (default 1024) are available.
+     * The server has no authentication, so it should be exposed to the
+     * network only via a proxy which authenticates users.
+     */
+    public static void main(String[] args) throws IOException{
+        var bind = InetAddress.getLoopbackAddress();
+        int port = DEFAULT_PORT;
+        long budgetBytes = Runtime.getRuntime().maxMemory() / 2;
+        long maxUploadBytes = DEFAULT_MAX_UPLOAD_BYTES;
+
+        for(int i = 0; i < args.length; i++){
+            if(i + 1 == args.length){
+                throw new IllegalArgumentException("Value is required: " + args[i]);
+            }
+            switch(args[i]){
+                case "--bind" -> bind = InetAddress.getByName(args[++i]);
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--memory-budget" -> budgetBytes = Long.parseLong(args[++i]) * 1024 * 1024;
+                case "--max-upload" -> maxUploadBytes = Long.parseLong(args[++i]) * 1024 * 1024;
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        var server = new AnalysisServer(new InetSocketAddress(bind, port), budgetBytes, maxUploadBytes);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.println("ThreadDumper server is listening on " + server.getAddress() +
+                           " (memory budget: " + (budgetBytes / 1024 / 1024) + " MB)");
+    }
+
+}
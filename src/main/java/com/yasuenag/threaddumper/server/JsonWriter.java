@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.server;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming JSON writer. Commas between elements are added automatically.
+ *
+ * @author yasuenag
+ */
+class JsonWriter {
+
+    private final Writer writer;
+
+    // true if the next element is the first one in the container
+    private boolean[] first;
+
+    private int depth;
+
+    // true if the next value follows the name
+    private boolean afterName;
+
+    public JsonWriter(Writer writer){
+        this.writer = writer;
+        this.first = new boolean[16];
+        this.depth = 0;
+        this.afterName = false;
+    }
+
+    private void beforeValue() throws IOException{
+        if(afterName){
+            afterName = false;
+            return;
+        }
+
+        if(depth > 0){
+            if(first[depth - 1]){
+                first[depth - 1] = false;
+            }
+            else{
+                writer.write(',');
+            }
+        }
+    }
+
+    private JsonWriter begin(char c) throws IOException{
+        beforeValue();
+        writer.write(c);
+
+        if(depth == first.length){
+            var newFirst = new boolean[first.length * 2];
+            System.arraycopy(first, 0, newFirst, 0, first.length);
+            first = newFirst;
+        }
+        first[depth++] = true;
+        return this;
+    }
+
+    private JsonWriter end(char c) throws IOException{
+        depth--;
+        writer.write(c);
+        return this;
+    }
+
+    public JsonWriter beginObject() throws IOException{
+        return begin('{');
+    }
+
+    public JsonWriter endObject() throws IOException{
+        return end('}');
+    }
+
+    public JsonWriter beginArray() throws IOException{
+        return begin('[');
+    }
+
+    public JsonWriter endArray() throws IOException{
+        return end(']');
+    }
+
+    public JsonWriter name(String name) throws IOException{
+        beforeValue();
+        writeString(name);
+        writer.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Write string value. null is written as null literal.
+     */
+    public JsonWriter value(String value) throws IOException{
+        beforeValue();
+        if(value == null){
+            writer.write("null");
+        }
+        else{
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException{
+        beforeValue();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException{
+        beforeValue();
+        writer.write((Double.isNaN(value) || Double.isInfinite(value)) ? "null" : Double.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException{
+        beforeValue();
+        writer.write(value ? "true" : "false");
+        return this;
+    }
+
+    private void writeString(String str) throws IOException{
+        writer.write('"');
+
+        for(int i = 0; i < str.length(); i++){
+            char c = str.charAt(i);
+            switch(c){
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if(c < 0x20){
+                        writer.write(String.format("\\u%04x", (int)c));
+                    }
+                    else{
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+
+        writer.write('"');
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.server;
+
+import com.yasuenag.threaddumper.analysis.StackDiff;
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.FrameTable;
+import com.yasuenag.threaddumper.parser.IntObjectMap;
+import com.yasuenag.threaddumper.parser.ParseStatistics;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Parsed thread dumps and the analysis which are shared by all clients.
+ *
+ * @author yasuenag
+ */
+class Session {
+
+    // Rough size of objects to estimate memory usage of the session
+    private static final long THREAD_BYTES = 512;
+
+    private static final long FRAME_BYTES = 160;
+
+    // e.g. "pool-1-thread-3" -> "pool-1-thread"
+    private static final Pattern POOL_SUFFIX_PATTERN = Pattern.compile("[-_#.\\s]*\\d+$");
+
+    /**
+     * All snapshots of one thread in one JVM.
+     */
+    public static class ThreadTimeline{
+
+        private final DumpSource source;
+
+        private final int nid;
+
+        private final String name;
+
+        private final List<ThreadInfo> snapshots;
+
+        private final StackDiff stackDiff;
+
+        public ThreadTimeline(DumpSource source, int nid, List<ThreadInfo> snapshots){
+            this.source = source;
+            this.nid = nid;
+            this.name = snapshots.get(0).getName();
+            this.snapshots = snapshots;
+            this.stackDiff = StackDiff.compute(snapshots);
+        }
+
+        public DumpSource getSource(){
+            return source;
+        }
+
+        public int getNid(){
+            return nid;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        public String getPoolName(){
+            return POOL_SUFFIX_PATTERN.matcher(name).replaceFirst("");
+        }
+
+        public List<ThreadInfo> getSnapshots(){
+            return snapshots;
+        }
+
+        public ThreadInfo getLast(){
+            return snapshots.get(snapshots.size() - 1);
+        }
+
+        public StackDiff getStackDiff(){
+            return stackDiff;
+        }
+
+    }
+
+    /**
+     * Node of flame graph. Value is the number of samples in the subtree.
+     */
+    public static class FlameNode{
+
+        private final String name;
+
+        private long value;
+
+        private final Map<String, FlameNode> children;
+
+        public FlameNode(String name){
+            this.name = name;
+            this.value = 0;
+            this.children = new LinkedHashMap<>();
+        }
+
+        private void add(List<ThreadInfo.CallFrame> callFrames, long count){
+            value += count;
+
+            // Root frame is the last one in the thread dump.
+            var node = this;
+            var itr = callFrames.listIterator(callFrames.size());
+            while(itr.hasPrevious()){
+                var frame = itr.previous();
+                if(frame == null){
+                    continue;
+                }
+                var element = frame.getStackTraceElement();
+                node = node.children.computeIfAbsent(element.getClassName() + "." + element.getMethodName(), FlameNode::new);
+                node.value += count;
+            }
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        public long getValue(){
+            return value;
+        }
+
+        public Iterable<FlameNode> getChildren(){
+            return children.values();
+        }
+
+    }
+
+    private final String id;
+
+    private final String fileName;
+
+    private final List<ThreadDump> dumps;
+
+    private final ParseStatistics statistics;
+
+    private final List<ThreadTimeline> threads;
+
+    private final long estimatedBytes;
+
+    public Session(String id, String fileName, List<ThreadDump> dumps, ParseStatistics statistics){
+        this.id = id;
+        this.fileName = fileName;
+        this.dumps = dumps;
+        this.statistics = statistics;
+
+        // Unique frames are shared by all threads in this session.
+        var table = new FrameTable();
+        dumps.forEach(d -> d.getThreads().forEach(t -> t.encode(table)));
+
+        this.threads = dumps.stream()
+                            .collect(Collectors.groupingBy(ThreadDump::getSource, LinkedHashMap::new, Collectors.toList()))
+                            .entrySet()
+                            .stream()
+                            .flatMap(e -> buildTimelines(e.getKey(), e.getValue()).stream())
+                            .collect(Collectors.toList());
+        // Grouped virtual threads are not held as ThreadInfo, so they are not counted.
+        this.estimatedBytes = dumps.stream()
+                                   .flatMap(d -> d.getThreads().stream())
+                                   .mapToLong(t -> THREAD_BYTES + t.getEncodedStack().get().getEncodedSize())
+                                   .sum() + table.size() * FRAME_BYTES;
+    }
+
+    private static List<ThreadTimeline> buildTimelines(DumpSource source, List<ThreadDump> dumps){
+        var nidMap = new IntObjectMap<List<ThreadInfo>>();
+        dumps.stream()
+             .sorted(Comparator.comparing(ThreadDump::getTime))
+             .flatMap(d -> d.getThreads().stream())
+             .forEachOrdered(t -> nidMap.computeIfAbsent(t.getNid(), k -> new ArrayList<>()).add(t));
+
+        List<ThreadTimeline> result = new ArrayList<>(nidMap.size());
+        nidMap.forEach((nid, info) -> result.add(new ThreadTimeline(source, nid, info)));
+        result.sort(Comparator.comparingInt(ThreadTimeline::getNid));
+        return result;
+    }
+
+    public String getId(){
+        return id;
+    }
+
+    public String getFileName(){
+        return fileName;
+    }
+
+    public List<ThreadDump> getDumps(){
+        return dumps;
+    }
+
+    public ParseStatistics getStatistics(){
+        return statistics;
+    }
+
+    public List<ThreadTimeline> getThreads(){
+        return threads;
+    }
+
+    public long getEstimatedBytes(){
+        return estimatedBytes;
+    }
+
+    public Optional<ThreadTimeline> getThread(Optional<DumpSource> source, int nid){
+        return threads.stream()
+                      .filter(t -> (t.getNid() == nid) && source.map(s -> s.equals(t.getSource())).orElse(true))
+                      .findFirst();
+    }
+
+    public List<ThreadTimeline> getStuckThreads(){
+        return threads.stream()
+                      .filter(t -> t.getStackDiff().getProgress() == StackDiff.Progress.STUCK)
+                      .collect(Collectors.toList());
+    }
+
+    /**
+     * @return threads grouped by JVM and the name without sequence number.
+     */
+    public Map<String, List<ThreadTimeline>> getPools(){
+        return threads.stream()
+                      .collect(Collectors.groupingBy(t -> (t.getSource().isUnknown() ? "" : t.getSource() + " ") + t.getPoolName(),
+                                                     LinkedHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Build flame graph from all threads in all thread dumps.
+     * Each thread dump is regarded as a sample.
+     */
+    public FlameNode buildFlameGraph(Optional<DumpSource> source){
+        var root = new FlameNode("all");
+
+        for(var dump : dumps){
+            if(source.isPresent() && !source.get().equals(dump.getSource())){
+                continue;
+            }
+            for(var thread : dump.getThreads()){
+                root.add(thread.getCallFrames(), 1);
+            }
+            for(var group : dump.getVirtualThreadGroups()){
+                root.add(group.getCallFrames(), group.getCount());
+            }
+        }
+
+        return root;
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sessions shared by all clients. The least recently used sessions are
+ * evicted when estimated memory usage exceeds the budget. The latest
+ * session is always kept even if it exceeds the budget by itself.
+ *
+ * @author yasuenag
+ */
+class SessionCache {
+
+    private final long budgetBytes;
+
+    // access ordered
+    private final LinkedHashMap<String, Session> sessions;
+
+    private long usedBytes;
+
+    private long evictions;
+
+    public SessionCache(long budgetBytes){
+        this.budgetBytes = budgetBytes;
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true);
+        this.usedBytes = 0;
+        this.evictions = 0;
+    }
+
+    public synchronized Optional<Session> get(String id){
+        return Optional.ofNullable(sessions.get(id));
+    }
+
+    /**
+     * Add the session. If the session which has same ID is already cached,
+     * it is returned instead.
+     */
+    public synchronized Session put(Session session){
+        var cached = sessions.get(session.getId());
+        if(cached != null){
+            return cached;
+        }
+
+        sessions.put(session.getId(), session);
+        usedBytes += session.getEstimatedBytes();
+
+        var itr = sessions.values().iterator();
+        while((usedBytes > budgetBytes) && (sessions.size() > 1)){
+            var eldest = itr.next();
+            itr.remove();
+            usedBytes -= eldest.getEstimatedBytes();
+            evictions++;
+        }
+
+        return session;
+    }
+
+    public synchronized boolean remove(String id){
+        var session = sessions.remove(id);
+        if(session == null){
+            return false;
+        }
+
+        usedBytes -= session.getEstimatedBytes();
+        return true;
+    }
+
+    /**
+     * @return cached sessions from the least recently used one.
+     */
+    public synchronized List<Session> getSessions(){
+        return new ArrayList<>(sessions.values());
+    }
+
+    public long getBudgetBytes(){
+        return budgetBytes;
+    }
+
+    public synchronized long getUsedBytes(){
+        return usedBytes;
+    }
+
+    public synchronized long getEvictions(){
+        return evictions;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (C) 2019 Yasumasa Suenaga
+ * Copyright (C) 2019, 2026, Yasumasa Suenaga
  *
  * This file is part of ThreadDumper.
  *
@@ -19,6 +19,11 @@
 module com.yasuenag.threaddumper {
     requires javafx.fxml;
     requires javafx.controls;
+    requires jdk.jfr;
+    requires jdk.management;
+    requires jdk.httpserver;
+    requires jdk.attach;
+    requires java.management.rmi;
     
     exports com.yasuenag.threaddumper to javafx.graphics;
     opens com.yasuenag.threaddumper to javafx.fxml;
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Thread dumps which are kept by each strategy of Downsampler.
+ *
+ * @author yasuenag
+ */
+class DownsamplerTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 1, 1, 9, 0, 0);
+
+    /**
+     * Thread in the snapshot: nid, state and the method at the top of the stack.
+     */
+    private static record Snapshot(int nid, Thread.State state, String method){}
+
+    private static ThreadDump dump(int seconds, Snapshot... snapshots){
+        var dump = new ThreadDump(DumpSource.UNKNOWN, TIME.plusSeconds(seconds));
+        for(var snapshot : snapshots){
+            var thread = new ThreadInfo(dump.getThreadInfoStore(), dump.getSource(), dump.getTime(), "thread-" + snapshot.nid(), 0, snapshot.nid(), "runnable");
+            thread.setThreadState(snapshot.state());
+            var callFrames = new LinkedList<ThreadInfo.CallFrame>();
+            callFrames.add(new ThreadInfo.CallFrame("com.example.Worker", null, null, snapshot.method(), "Worker.java", 10));
+            callFrames.add(new ThreadInfo.CallFrame("java.lang.Thread", null, null, "run", "Thread.java", 833));
+            thread.setCallFrames(callFrames);
+            dump.getThreads().add(thread);
+        }
+        return dump;
+    }
+
+    private static List<ThreadDump> plain(int count){
+        List<ThreadDump> result = new ArrayList<>();
+        for(int i = 0; i < count; i++){
+            result.add(dump(i, new Snapshot(1, Thread.State.RUNNABLE, "work")));
+        }
+        return result;
+    }
+
+    /**
+     * @return seconds from TIME of kept thread dumps.
+     */
+    private static List<Integer> apply(Downsampler.Strategy strategy, int interval, List<ThreadDump> dumps){
+        return new Downsampler(strategy, interval).apply(dumps)
+                                                  .stream()
+                                                  .map(d -> d.getTime().getSecond())
+                                                  .collect(Collectors.toList());
+    }
+
+    @Test
+    void all(){
+        var dumps = plain(5);
+        Collections.reverse(dumps);
+        assertEquals(List.of(0, 1, 2, 3, 4), apply(Downsampler.Strategy.ALL, 1, dumps));
+    }
+
+    @Test
+    void everyNth(){
+        var dumps = plain(11);
+        Collections.shuffle(dumps, new Random(1));
+
+        // The last one is always kept.
+        assertEquals(List.of(0, 3, 6, 9, 10), apply(Downsampler.Strategy.EVERY_NTH, 3, dumps));
+        assertEquals(List.of(0, 10), apply(Downsampler.Strategy.EVERY_NTH, 100, dumps));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10), apply(Downsampler.Strategy.EVERY_NTH, 1, dumps));
+    }
+
+    @Test
+    void firstAndLastAreKept(){
+        for(var strategy : Downsampler.Strategy.values()){
+            assertEquals(List.of(0, 1), apply(strategy, 5, plain(2)), strategy.name());
+            if(strategy != Downsampler.Strategy.ALL){
+                assertEquals(List.of(0, 2), apply(strategy, 5, plain(3)), strategy.name());
+            }
+        }
+    }
+
+    @Test
+    void changePoint(){
+        var dumps = List.of(dump(0, new Snapshot(1, Thread.State.RUNNABLE, "a")),
+                            // stack is changed, but the state is not.
+                            dump(1, new Snapshot(1, Thread.State.RUNNABLE, "b")),
+                            dump(2, new Snapshot(1, Thread.State.BLOCKED, "b")),
+                            dump(3, new Snapshot(1, Thread.State.BLOCKED, "b")),
+                            // thread is created
+                            dump(4, new Snapshot(1, Thread.State.BLOCKED, "b"), new Snapshot(2, Thread.State.RUNNABLE, "a")),
+                            dump(5, new Snapshot(1, Thread.State.BLOCKED, "b"), new Snapshot(2, Thread.State.RUNNABLE, "a")),
+                            // thread is exited
+                            dump(6, new Snapshot(1, Thread.State.BLOCKED, "b")),
+                            dump(7, new Snapshot(1, Thread.State.BLOCKED, "b")));
+        assertEquals(List.of(0, 2, 4, 6, 7), apply(Downsampler.Strategy.CHANGE_POINT, 1, dumps));
+    }
+
+    @Test
+    void stackChange(){
+        var dumps = List.of(dump(0, new Snapshot(1, Thread.State.RUNNABLE, "a"), new Snapshot(2, Thread.State.WAITING, "wait")),
+                            // state is changed, but the stack is not.
+                            dump(1, new Snapshot(1, Thread.State.BLOCKED, "a"), new Snapshot(2, Thread.State.WAITING, "wait")),
+                            dump(2, new Snapshot(1, Thread.State.BLOCKED, "a"), new Snapshot(2, Thread.State.RUNNABLE, "run")),
+                            dump(3, new Snapshot(1, Thread.State.BLOCKED, "a"), new Snapshot(2, Thread.State.RUNNABLE, "run")),
+                            dump(4, new Snapshot(1, Thread.State.RUNNABLE, "c"), new Snapshot(2, Thread.State.RUNNABLE, "run")),
+                            dump(5, new Snapshot(1, Thread.State.RUNNABLE, "c"), new Snapshot(2, Thread.State.RUNNABLE, "run")));
+        assertEquals(List.of(0, 2, 4, 5), apply(Downsampler.Strategy.STACK_CHANGE, 1, dumps));
+    }
+
+    @Test
+    void invalidInterval(){
+        assertThrows(IllegalArgumentException.class, () -> new Downsampler(Downsampler.Strategy.EVERY_NTH, 0));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadDumpParser;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Attribution of a monitor which is shared by the owner, a thread in
+ * Object.wait() and a blocked thread.
+ *
+ * @author yasuenag
+ */
+class LockAttributionTest {
+
+    private static final long MONITOR = 0xc0000100L;
+
+    // "waiter" entered the monitor and released it in Object.wait(), so it
+    // shows "locked" after the owner.
+    private static final String DUMP = """
+            %s
+            Full thread dump OpenJDK 64-Bit Server VM (17.0.9+9 mixed mode, sharing):
+
+            "owner" #10 prio=5 os_prio=0 cpu=1.00ms elapsed=10.00s tid=0x00007f0000001000 nid=0x101 runnable  [0x00007f0000100000]
+               java.lang.Thread.State: RUNNABLE
+            \tat com.example.Cache.refresh(Cache.java:10)
+            \t- locked <0x00000000c0000100> (a java.lang.Object)
+            \tat java.lang.Thread.run(java.base@17.0.9/Thread.java:833)
+
+            "waiter" #11 prio=5 os_prio=0 cpu=1.00ms elapsed=10.00s tid=0x00007f0000002000 nid=0x102 in Object.wait()  [0x00007f0000200000]
+               java.lang.Thread.State: WAITING (on object monitor)
+            \tat java.lang.Object.wait(java.base@17.0.9/Native Method)
+            \t- waiting on <0x00000000c0000100> (a java.lang.Object)
+            \tat java.lang.Object.wait(java.base@17.0.9/Object.java:338)
+            \tat com.example.Cache.await(Cache.java:20)
+            \t- locked <0x00000000c0000100> (a java.lang.Object)
+            \tat java.lang.Thread.run(java.base@17.0.9/Thread.java:833)
+
+            "blocked" #12 prio=5 os_prio=0 cpu=1.00ms elapsed=10.00s tid=0x00007f0000003000 nid=0x103 waiting for monitor entry  [0x00007f0000300000]
+               java.lang.Thread.State: BLOCKED (on object monitor)
+            \tat com.example.Cache.get(Cache.java:30)
+            \t- waiting to lock <0x00000000c0000100> (a java.lang.Object)
+            \tat java.lang.Thread.run(java.base@17.0.9/Thread.java:833)
+
+            JNI global refs: 10, weak refs: 0
+
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private static ThreadInfo find(ThreadDump dump, String name){
+        return dump.getThreads()
+                   .stream()
+                   .filter(t -> t.getName().equals(name))
+                   .findFirst()
+                   .orElseThrow();
+    }
+
+    @Test
+    void waitingThreadIsNotOwner() throws IOException{
+        var file = tempDir.resolve("app_pid1234.txt");
+        Files.writeString(file, DUMP.formatted("2026-01-01 09:00:00") + DUMP.formatted("2026-01-01 09:00:10"));
+        List<ThreadDump> dumps = ThreadDumpParser.parse(List.of(file), ThreadDumpParser.Mode.STRICT);
+        assertEquals(2, dumps.size());
+
+        for(var dump : dumps){
+            assertEquals(find(dump, "owner"), dump.getLockOwner(MONITOR).orElseThrow());
+        }
+
+        var last = dumps.get(1);
+        var attribution = LockAttribution.compute(dumps);
+        var wait = attribution.getWait(find(last, "blocked")).orElseThrow();
+        assertEquals(find(last, "owner"), wait.getOwner().orElseThrow());
+        assertEquals(List.of(find(last, "owner")), wait.getChain());
+        assertEquals(Duration.ofSeconds(10), wait.getHoldDuration().orElseThrow());
+        assertFalse(wait.isDeadlocked());
+
+        // Object.wait() is not blocked to enter the monitor.
+        assertTrue(attribution.getWait(find(last, "waiter")).isEmpty());
+    }
+
+}
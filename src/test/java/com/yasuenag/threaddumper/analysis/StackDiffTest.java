@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.FrameTable;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import com.yasuenag.threaddumper.parser.ThreadInfoStore;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Classification of snapshots of one thread by StackDiff.
+ *
+ * @author yasuenag
+ */
+class StackDiffTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 1, 1, 9, 0, 0);
+
+    private static ThreadInfo.CallFrame frame(String method){
+        return new ThreadInfo.CallFrame("com.example.Worker", null, null, method, "Worker.java", 10);
+    }
+
+    /**
+     * @param methods methods from the top of the stack. "run" is added to the bottom.
+     */
+    private static LinkedList<ThreadInfo.CallFrame> stack(String... methods){
+        var result = new LinkedList<ThreadInfo.CallFrame>();
+        for(var method : methods){
+            result.add(frame(method));
+        }
+        result.add(frame("run"));
+        return result;
+    }
+
+    private static List<ThreadInfo> snapshots(boolean encode, List<LinkedList<ThreadInfo.CallFrame>> stacks){
+        var table = new FrameTable();
+        List<ThreadInfo> result = new ArrayList<>();
+        for(int i = 0; i < stacks.size(); i++){
+            var thread = new ThreadInfo(new ThreadInfoStore(1), DumpSource.UNKNOWN, TIME.plusSeconds(i), "worker", 1, 1, "runnable");
+            thread.setCallFrames(stacks.get(i));
+            if(encode){
+                thread.encode(table);
+            }
+            result.add(thread);
+        }
+        return result;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void unknown(boolean encode){
+        var diff = StackDiff.compute(snapshots(encode, List.of(stack("a"))));
+        assertEquals(StackDiff.Progress.UNKNOWN, diff.getProgress());
+        assertEquals(Optional.empty(), diff.getStuckSince());
+        assertEquals(2, diff.getEntries().get(0).getCommonDepth());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void progressing(boolean encode){
+        var diff = StackDiff.compute(snapshots(encode, List.of(stack("a"), stack("b", "a"), stack("c"))));
+        assertEquals(StackDiff.Progress.PROGRESSING, diff.getProgress());
+        assertEquals(Optional.empty(), diff.getStuckSince());
+
+        // "b" is pushed on "a", then both are replaced with "c".
+        var entries = diff.getEntries();
+        assertEquals(2, entries.get(1).getCommonDepth());
+        assertEquals(1, entries.get(1).getChangedFrames());
+        assertEquals(1, entries.get(2).getCommonDepth());
+        assertEquals(1, entries.get(2).getChangedFrames());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void oscillating(boolean encode){
+        var diff = StackDiff.compute(snapshots(encode, List.of(stack("a"), stack("b"), stack("a"))));
+        assertEquals(StackDiff.Progress.OSCILLATING, diff.getProgress());
+        assertEquals(Optional.empty(), diff.getStuckSince());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void stuck(boolean encode){
+        var diff = StackDiff.compute(snapshots(encode, List.of(stack("a"), stack("b"), stack("b"), stack("b"))));
+        assertEquals(StackDiff.Progress.STUCK, diff.getProgress());
+        assertEquals(Optional.of(TIME.plusSeconds(1)), diff.getStuckSince());
+        assertEquals(0, diff.getEntries().get(3).getChangedFrames());
+    }
+
+    @Test
+    void fingerprintCollision(){
+        // Hash codes of both locks are same, so fingerprints of both stacks are same.
+        var lock1 = new ThreadInfo.LockInfo("locked", 0x100000001L, "java.lang.Object");
+        var lock2 = new ThreadInfo.LockInfo("locked", 0L, "java.lang.Object");
+        var stack1 = stack("a");
+        stack1.getFirst().setLock(lock1);
+        var stack2 = stack("a");
+        stack2.getFirst().setLock(lock2);
+        assertNotEquals(stack1, stack2);
+        assertEquals(StackDiff.fingerprint(stack1), StackDiff.fingerprint(stack2));
+
+        // The thread does not come back to stack1.
+        var diff = StackDiff.compute(snapshots(false, List.of(stack1, stack("b"), stack2)));
+        assertEquals(StackDiff.Progress.PROGRESSING, diff.getProgress());
+
+        // Consecutive snapshots are not regarded as stuck.
+        diff = StackDiff.compute(snapshots(false, List.of(stack1, stack2)));
+        assertEquals(StackDiff.Progress.PROGRESSING, diff.getProgress());
+    }
+
+}
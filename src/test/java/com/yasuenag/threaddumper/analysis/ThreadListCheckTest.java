@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.analysis;
+
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Thread churn between thread dumps, and SMR mismatches in a thread dump.
+ *
+ * @author yasuenag
+ */
+class ThreadListCheckTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 1, 1, 9, 0, 0);
+
+    private static ThreadDump dump(int seconds){
+        return new ThreadDump(DumpSource.UNKNOWN, TIME.plusSeconds(seconds));
+    }
+
+    /**
+     * @param id thread ID, or negative value for VM internal thread.
+     */
+    private static ThreadInfo add(ThreadDump dump, String name, int id, long tid, int nid){
+        var thread = new ThreadInfo(dump.getThreadInfoStore(), dump.getSource(), dump.getTime(), name, tid, nid, "runnable");
+        if(id >= 0){
+            thread.setId(id);
+        }
+        dump.getThreads().add(thread);
+        return thread;
+    }
+
+    private static List<String> names(List<ThreadInfo> threads){
+        return threads.stream()
+                      .map(ThreadInfo::getName)
+                      .sorted()
+                      .collect(Collectors.toList());
+    }
+
+    @Test
+    void churnByThreadId(){
+        var first = dump(0);
+        add(first, "main", 1, 0x7f0000001000L, 0x101);
+        add(first, "old-worker", 11, 0x7f0000002000L, 0x102);
+
+        // "new-worker" reuses the address and nid of "old-worker" which has exited.
+        var second = dump(10);
+        add(second, "main", 1, 0x7f0000001000L, 0x101);
+        add(second, "new-worker", 12, 0x7f0000002000L, 0x102);
+
+        var churn = ThreadListCheck.churn(List.of(first, second));
+        assertEquals(1, churn.size());
+        assertEquals(second.getTime(), churn.get(0).getTime());
+        assertEquals(List.of("new-worker"), names(churn.get(0).getCreated()));
+        assertEquals(List.of("old-worker"), names(churn.get(0).getExited()));
+    }
+
+    @Test
+    void churnByTidForVMThreads(){
+        var first = dump(0);
+        add(first, "VM Thread", -1, 0x7f0000010000L, 0x201);
+        add(first, "GC Thread#1", -1, 0x7f0000020000L, 0x202);
+
+        // GC thread is restarted at the other address with the same nid.
+        var second = dump(10);
+        add(second, "VM Thread", -1, 0x7f0000010000L, 0x201);
+        add(second, "GC Thread#1", -1, 0x7f0000030000L, 0x202);
+
+        var churn = ThreadListCheck.churn(List.of(first, second)).get(0);
+        assertEquals(List.of("GC Thread#1"), names(churn.getCreated()));
+        assertEquals(0x7f0000030000L, churn.getCreated().get(0).getTid());
+        assertEquals(0x7f0000020000L, churn.getExited().get(0).getTid());
+    }
+
+    @Test
+    void churnByNidWithoutTid(){
+        // Threads in JSON thread dump do not have tid, and thread ID is held as nid.
+        var first = dump(0);
+        add(first, "a", -1, 0, 21);
+        add(first, "b", -1, 0, 22);
+
+        var second = dump(10);
+        add(second, "a", -1, 0, 21);
+        add(second, "c", -1, 0, 23);
+
+        var churn = ThreadListCheck.churn(List.of(first, second)).get(0);
+        assertEquals(List.of("c"), names(churn.getCreated()));
+        assertEquals(List.of("b"), names(churn.getExited()));
+    }
+
+    @Test
+    void churnIsSortedByTime(){
+        var first = dump(0);
+        add(first, "main", 1, 0x1000L, 1);
+        var second = dump(10);
+        add(second, "main", 1, 0x1000L, 1);
+        add(second, "worker", 10, 0x2000L, 2);
+        var third = dump(20);
+
+        var churn = ThreadListCheck.churn(List.of(third, first, second));
+        assertEquals(List.of(second.getTime(), third.getTime()), churn.stream().map(ThreadListCheck.Churn::getTime).collect(Collectors.toList()));
+        assertEquals(List.of("worker"), names(churn.get(0).getCreated()));
+        assertTrue(churn.get(0).getExited().isEmpty());
+        assertEquals(List.of("main", "worker"), names(churn.get(1).getExited()));
+    }
+
+    @Test
+    void smrMismatch(){
+        var dump = dump(0);
+        add(dump, "main", 1, 0x1000L, 1);
+        add(dump, "not-in-smr", 10, 0x4000L, 4);
+        // VM internal threads are not listed in SMR info.
+        add(dump, "VM Thread", -1, 0x5000L, 5);
+        // Non-Java thread at the address in SMR info.
+        add(dump, "Service Thread", -1, 0x3000L, 3);
+
+        var smr = new ThreadDump.SMRInfo(0x9000L);
+        smr.setJavaThreads(new long[]{0x1000L, 0x2000L, 0x3000L, 0x2000L});
+        dump.setSMRInfo(smr);
+
+        var mismatch = ThreadListCheck.check(dump);
+        assertFalse(mismatch.isEmpty());
+        assertEquals(dump.getTime(), mismatch.getTime());
+        assertArrayEquals(new long[]{0x2000L}, mismatch.getMissingFromDump());
+        assertEquals(List.of("not-in-smr"), names(mismatch.getMissingFromSMR()));
+    }
+
+    @Test
+    void smrMatch(){
+        var dump = dump(0);
+        add(dump, "main", 1, 0x1000L, 1);
+        add(dump, "VM Thread", -1, 0x5000L, 5);
+
+        var smr = new ThreadDump.SMRInfo(0x9000L);
+        smr.setJavaThreads(new long[]{0x1000L});
+        dump.setSMRInfo(smr);
+        assertTrue(ThreadListCheck.check(dump).isEmpty());
+    }
+
+    @Test
+    void withoutSMRInfo(){
+        var dump = dump(0);
+        add(dump, "main", 1, 0x1000L, 1);
+        assertTrue(ThreadListCheck.check(dump).isEmpty());
+    }
+
+}
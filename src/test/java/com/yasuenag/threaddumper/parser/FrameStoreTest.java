@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Paging of call frames in FrameStore.
+ *
+ * @author yasuenag
+ */
+class FrameStoreTest {
+
+    private static final int THREADS = 100;
+
+    private static final int DEPTH = 20;
+
+    private static ThreadDump createDump(){
+        var dump = new ThreadDump(DumpSource.UNKNOWN, LocalDateTime.of(2026, 1, 1, 0, 0), new ThreadInfoStore(THREADS));
+        for(int i = 0; i < THREADS; i++){
+            var thread = new ThreadInfo(dump.getThreadInfoStore(), DumpSource.UNKNOWN, dump.getTime(), "thread-" + i, i, i, "runnable");
+            var callFrames = new LinkedList<ThreadInfo.CallFrame>();
+            for(int j = 0; j < DEPTH; j++){
+                callFrames.add(new ThreadInfo.CallFrame("com.example.Class" + i, null, null, "method" + j, "Class" + i + ".java", j));
+            }
+            thread.setCallFrames(callFrames);
+            dump.getThreads().add(thread);
+        }
+        return dump;
+    }
+
+    private static List<String> describe(ThreadInfo thread){
+        return thread.getCallFrames()
+                     .stream()
+                     .map(f -> f.getStackTraceElement().toString())
+                     .collect(Collectors.toList());
+    }
+
+    private static List<List<String>> expected(){
+        return createDump().getThreads()
+                           .stream()
+                           .map(FrameStoreTest::describe)
+                           .collect(Collectors.toList());
+    }
+
+    @Test
+    void pageOutAndIn() throws IOException{
+        var expected = expected();
+        var dump = createDump();
+        try(var store = new FrameStore(FrameStore.FRAME_BYTES * DEPTH * 10)){
+            store.register(dump);
+            assertTrue(store.getEvictions() > 0);
+            assertTrue(store.getResidentBytes() <= store.getBudgetBytes());
+
+            for(int i = 0; i < THREADS; i++){
+                assertEquals(expected.get(i), describe(dump.getThreads().get(i)));
+            }
+            assertTrue(store.getLoads() > 0);
+            assertTrue(store.getResidentBytes() <= store.getBudgetBytes());
+        }
+    }
+
+    @Test
+    void pageOutAndInEncoded() throws IOException{
+        var expected = expected();
+        var dump = createDump();
+        var table = new FrameTable();
+        dump.getThreads().forEach(t -> t.encode(table));
+        try(var store = new FrameStore(1, table)){
+            store.register(dump);
+            assertEquals(THREADS - 1, store.getEvictions());
+
+            for(int i = 0; i < THREADS; i++){
+                assertEquals(expected.get(i), describe(dump.getThreads().get(i)));
+            }
+            // The last thread is evicted when the first one is paged in.
+            assertEquals(THREADS, store.getLoads());
+        }
+    }
+
+    @Test
+    void concurrentLoad() throws IOException{
+        var expected = expected();
+        var dump = createDump();
+        try(var store = new FrameStore(FrameStore.FRAME_BYTES * DEPTH * 10)){
+            store.register(dump);
+
+            // Resident frames are read without lock while others are paged in.
+            IntStream.range(0, THREADS * 50)
+                     .parallel()
+                     .forEach(n -> {
+                         int i = (n % 7 == 0) ? n % THREADS : n % 5;
+                         assertEquals(expected.get(i), describe(dump.getThreads().get(i)));
+                     });
+            assertTrue(store.getResidentBytes() <= store.getBudgetBytes());
+        }
+    }
+
+}
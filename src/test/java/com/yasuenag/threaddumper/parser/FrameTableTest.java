@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Encoding call stacks with FrameTable.
+ *
+ * @author yasuenag
+ */
+class FrameTableTest {
+
+    private static final ThreadInfo.LockInfo LOCK = new ThreadInfo.LockInfo("locked", 0xc0000100L, "java.lang.Object");
+
+    private static LinkedList<ThreadInfo.CallFrame> stack(boolean locked){
+        var result = new LinkedList<ThreadInfo.CallFrame>();
+        result.add(new ThreadInfo.CallFrame("com.example.Cache", null, null, "refresh", "Cache.java", 10));
+        result.add(new ThreadInfo.CallFrame("java.lang.Thread", "java.base", "21", "run", "Thread.java", 1583));
+        if(locked){
+            result.getFirst().setLock(LOCK);
+        }
+        return result;
+    }
+
+    @Test
+    void roundTrip(){
+        var table = new FrameTable();
+        var encoded = table.encode(stack(true));
+
+        assertEquals(2, encoded.getDepth());
+        assertEquals(2, table.size());
+        assertEquals(stack(true), encoded.decode());
+        assertEquals(List.of(LOCK), encoded.getLocks());
+    }
+
+    @Test
+    void sharedFramesAreImmutable(){
+        var table = new FrameTable();
+        var unlocked = table.encode(stack(false)).decode();
+        var locked = table.encode(stack(true)).decode();
+
+        // Frames without lock are shared with the table.
+        assertSame(unlocked.getLast(), locked.getLast());
+        assertThrows(IllegalStateException.class, () -> unlocked.getFirst().setLock(LOCK));
+
+        // Frame with lock is a copy, so the lock does not leak to other stacks.
+        assertEquals(Optional.of(LOCK), locked.getFirst().getLock());
+        assertEquals(Optional.empty(), table.encode(stack(false)).decode().getFirst().getLock());
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author yasuenag
+ */
+class JsonReaderTest {
+
+    /**
+     * Read {"values": [...], ...} and return string values in "values".
+     * Other members are skipped.
+     */
+    private static List<String> readValues(String json) throws IOException{
+        var reader = new JsonReader(new StringReader(json));
+        List<String> result = new ArrayList<>();
+
+        reader.beginObject();
+        while(reader.hasNext()){
+            if(!reader.nextName().equals("values")){
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while(reader.hasNext()){
+                result.add(reader.nextString());
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+        assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+
+        return result;
+    }
+
+    @Test
+    void read() throws IOException{
+        var json = """
+                {
+                  "skipped": {"a": [1, {"b": null}], "c": "x,y:z"},
+                  "values": ["a\\"b", 12, true, null, "\\u3042\\n", "\\/"],
+                  "empty": []
+                }
+                """;
+        var values = readValues(json);
+        assertEquals(6, values.size());
+        assertEquals("a\"b", values.get(0));
+        assertEquals("12", values.get(1));
+        assertEquals("true", values.get(2));
+        assertNull(values.get(3));
+        assertEquals("\u3042\n", values.get(4));
+        assertEquals("/", values.get(5));
+    }
+
+    @Test
+    void emptyContainers() throws IOException{
+        var reader = new JsonReader(new StringReader("{ }"));
+        reader.beginObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+
+        assertEquals(List.of(), readValues("{\"values\": []}"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "{\"values\": [1 2]}",            // missing ','
+        "{\"values\" [1]}",               // missing ':'
+        "{\"values\": [1],, \"x\": 1}",   // duplicated ','
+        "{\"values\": [1,]}",             // trailing ','
+        "{\"values\": [1], \"x\": 1,}",   // trailing ',' in object
+        "{\"values\": [\"\\u30zz\"]}",    // invalid hex in \\u
+        "{\"values\": [\"\\u30",          // truncated \\u
+        "{\"values\": [\"abc",            // unterminated string
+        "{\"values\": [{]}",              // mismatched bracket
+    })
+    void malformed(String json){
+        assertThrows(IOException.class, () -> readValues(json));
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JSON thread dump with a platform thread, a mounted virtual thread and
+ * unmounted virtual threads which are grouped.
+ *
+ * @author yasuenag
+ */
+class JsonThreadDumpParserTest {
+
+    private static final String DUMP = """
+            {
+              "threadDump": {
+                "processId": "4242",
+                "time": "2026-01-01T09:00:00",
+                "runtimeVersion": "21.0.1+12-LTS",
+                "threadContainers": [
+                  {
+                    "container": "<root>",
+                    "parent": null,
+                    "owner": null,
+                    "threads": [
+                      {
+                        "tid": "1",
+                        "name": "main",
+                        "state": "TIMED_WAITING",
+                        "stack": [
+                          "java.base\\/java.lang.Thread.sleep0(Native Method)",
+                          "app\\/\\/Main.main(Main.java:5)"
+                        ]
+                      }
+                    ],
+                    "threadCount": "1"
+                  },
+                  {
+                    "container": "java.util.concurrent.ThreadPerTaskExecutor@1a2b",
+                    "parent": "<root>",
+                    "owner": null,
+                    "threads": [
+                      %s,
+                      %s,
+                      %s,
+                      {
+                        "tid": "200",
+                        "name": "",
+                        "state": "RUNNABLE",
+                        "virtual": "true",
+                        "carrier": "30",
+                        "stack": [
+                          "app\\/\\/Task.compute(Task.java:20)",
+                          "java.base\\/java.lang.VirtualThread.run(VirtualThread.java:311)"
+                        ]
+                      }
+                    ],
+                    "threadCount": "4"
+                  }
+                ]
+              }
+            }
+            """;
+
+    private static final String PARKED = """
+            {
+                        "tid": "%d",
+                        "name": "",
+                        "state": "%s",
+                        "stack": [
+                          "java.base\\/java.lang.VirtualThread.park(VirtualThread.java:582)",
+                          "app\\/\\/Task.run(Task.java:%d)",
+                          "java.base\\/java.lang.VirtualThread.run(VirtualThread.java:311)"
+                        ]
+                      }""";
+
+    @Test
+    void groupVirtualThreads() throws IOException{
+        var json = DUMP.formatted(PARKED.formatted(100, "WAITING", 10),
+                                  PARKED.formatted(101, "WAITING", 10),
+                                  PARKED.formatted(102, "TIMED_WAITING", 11));
+        var dump = JsonThreadDumpParser.parse(DumpSource.UNKNOWN, new StringReader(json));
+
+        assertEquals(4242L, dump.getSource().getPid().getAsLong());
+        assertEquals("21.0.1+12-LTS", dump.getVmVersion());
+
+        // main and the mounted virtual thread
+        assertEquals(2, dump.getThreads().size());
+        var main = dump.getThreads().get(0);
+        assertEquals("main", main.getName());
+        assertEquals(Optional.of(Thread.State.TIMED_WAITING), main.getThreadState());
+        assertFalse(main.isVirtual());
+        var mounted = dump.getThreads().get(1);
+        assertTrue(mounted.isVirtual());
+        assertEquals(30L, mounted.getCarrier().getAsLong());
+        assertEquals(Optional.of(Thread.State.RUNNABLE), mounted.getThreadState());
+
+        // Rows of grouped virtual threads are removed.
+        assertEquals(2, dump.getThreadInfoStore().size());
+
+        var groups = dump.getVirtualThreadGroups();
+        assertEquals(2, groups.size());
+        assertEquals(4, dump.getVirtualThreadCount());
+
+        var waiting = groups.get(0);
+        assertEquals("java.util.concurrent.ThreadPerTaskExecutor@1a2b", waiting.getContainer());
+        assertEquals(2, waiting.getCount());
+        assertEquals(Optional.of(Thread.State.WAITING), waiting.getThreadState());
+        assertEquals(10, waiting.getCallFrames().get(1).getStackTraceElement().getLineNumber());
+
+        var timedWaiting = groups.get(1);
+        assertEquals(1, timedWaiting.getCount());
+        assertEquals(Optional.of(Thread.State.TIMED_WAITING), timedWaiting.getThreadState());
+    }
+
+    @Test
+    void skipOutOfWindow() throws IOException{
+        var json = DUMP.formatted(PARKED.formatted(100, "WAITING", 10),
+                                  PARKED.formatted(101, "WAITING", 10),
+                                  PARKED.formatted(102, "WAITING", 10));
+        var window = new TimeWindow(LocalDateTime.of(2026, 1, 2, 0, 0), null);
+        assertNull(JsonThreadDumpParser.parse(DumpSource.UNKNOWN, new StringReader(json), window));
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Open addressing maps and set which have primitive keys:
+ * IntObjectMap, LongObjectMap and LongSet.
+ *
+ * @author yasuenag
+ */
+class PrimitiveHashTest {
+
+    // Upper and lower 32 bits are cancelled by the hash function, so they
+    // have same hash as 0.
+    private static final long[] COLLIDING_KEYS = {0L, 0x1_00000001L, 0x2_00000002L, 0xffffffff_ffffffffL};
+
+    private static final int MANY = 10_000;
+
+    @Test
+    void longObjectMapCollisions(){
+        for(var key : COLLIDING_KEYS){
+            assertEquals(LongObjectMap.hash(0L), LongObjectMap.hash(key));
+        }
+
+        var map = new LongObjectMap<String>();
+        for(var key : COLLIDING_KEYS){
+            assertNull(map.put(key, Long.toHexString(key)));
+        }
+        assertEquals(COLLIDING_KEYS.length, map.size());
+        for(var key : COLLIDING_KEYS){
+            assertEquals(Long.toHexString(key), map.get(key));
+        }
+
+        // Replace the value in the middle of the probing chain.
+        assertEquals("100000001", map.put(0x1_00000001L, "replaced"));
+        assertEquals(COLLIDING_KEYS.length, map.size());
+        assertEquals("replaced", map.get(0x1_00000001L));
+        assertEquals("200000002", map.get(0x2_00000002L));
+        assertNull(map.get(0x3_00000003L));
+    }
+
+    @Test
+    void longObjectMapZeroAndNegativeKeys(){
+        var map = new LongObjectMap<String>();
+        assertFalse(map.containsKey(0L));
+        assertNull(map.get(0L));
+        assertTrue(map.isEmpty());
+
+        map.put(0L, "zero");
+        map.put(-1L, "minus one");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(Long.MAX_VALUE, "max");
+        assertTrue(map.containsKey(0L));
+        assertEquals("zero", map.get(0L));
+        assertEquals("minus one", map.get(-1L));
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertEquals(4, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(1L, null));
+    }
+
+    @Test
+    void longObjectMapResize(){
+        var map = new LongObjectMap<Long>(1);
+        for(long i = 0; i < MANY; i++){
+            map.put(i * 0x1_00000000L - i, i);
+        }
+
+        assertEquals(MANY, map.size());
+        for(long i = 0; i < MANY; i++){
+            assertEquals(i, map.get(i * 0x1_00000000L - i));
+        }
+        assertEquals(MANY, map.values().size());
+
+        long[] sum = new long[1];
+        map.forEach((k, v) -> {
+            assertEquals(v * 0x1_00000000L - v, k);
+            sum[0] += v;
+        });
+        assertEquals((long)MANY * (MANY - 1) / 2, sum[0]);
+    }
+
+    @Test
+    void intObjectMap(){
+        var map = new IntObjectMap<List<Integer>>(2);
+        assertNull(map.get(0));
+        for(int i = -MANY / 2; i < MANY / 2; i++){
+            map.computeIfAbsent(i, k -> new ArrayList<>()).add(i);
+        }
+        map.computeIfAbsent(Integer.MIN_VALUE, k -> new ArrayList<>()).add(Integer.MIN_VALUE);
+        map.computeIfAbsent(Integer.MAX_VALUE, k -> new ArrayList<>()).add(Integer.MAX_VALUE);
+        map.computeIfAbsent(-1, k -> new ArrayList<>()).add(-1);
+
+        assertEquals(MANY + 2, map.size());
+        assertEquals(List.of(-1, -1), map.get(-1));
+        assertEquals(List.of(0), map.get(0));
+        assertEquals(List.of(Integer.MIN_VALUE), map.get(Integer.MIN_VALUE));
+        assertEquals(List.of(Integer.MAX_VALUE), map.get(Integer.MAX_VALUE));
+        assertTrue(map.containsKey(MANY / 2 - 1));
+        assertFalse(map.containsKey(MANY / 2));
+
+        // Negative keys are restored by forEach.
+        map.forEach((k, v) -> assertEquals(k, v.get(0)));
+    }
+
+    @Test
+    void longSet(){
+        var set = new LongSet(1);
+        assertFalse(set.contains(0L));
+        for(var key : COLLIDING_KEYS){
+            assertTrue(set.add(key));
+            assertFalse(set.add(key));
+        }
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertEquals(COLLIDING_KEYS.length + 1, set.size());
+        assertTrue(set.contains(0L));
+        assertTrue(set.contains(-1L));
+        assertFalse(set.contains(1L));
+
+        var expected = Arrays.copyOf(COLLIDING_KEYS, COLLIDING_KEYS.length + 1);
+        expected[COLLIDING_KEYS.length] = Long.MIN_VALUE;
+        Arrays.sort(expected);
+        var actual = set.toArray();
+        Arrays.sort(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void longSetResize(){
+        var values = new long[MANY];
+        for(int i = 0; i < MANY; i++){
+            values[i] = -i * 31L;
+        }
+
+        var set = LongSet.of(values);
+        assertEquals(MANY, set.size());
+        for(var value : values){
+            assertTrue(set.contains(value));
+        }
+        assertFalse(set.contains(1L));
+    }
+
+}
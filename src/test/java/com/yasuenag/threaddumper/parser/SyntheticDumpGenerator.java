@@ -0,0 +1,483 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of realistic thread dumps in jstack format of
+ * JDK 8, 11, 17 and 21. Same seed generates same thread dumps.
+ *
+ * Threads are generated as thread pools, lock holders and their waiters,
+ * and JVM internal threads. Call stacks of some threads change between
+ * thread dumps, and pool workers are created and exited occasionally.
+ *
+ * @author yasuenag
+ */
+class SyntheticDumpGenerator {
+
+    static enum JdkVersion{
+        JDK8(8, "Java HotSpot(TM) 64-Bit Server VM (25.402-b06 mixed mode)"),
+        JDK11(11, "OpenJDK 64-Bit Server VM (11.0.22+7 mixed mode)"),
+        JDK17(17, "OpenJDK 64-Bit Server VM (17.0.10+7 mixed mode, sharing)"),
+        JDK21(21, "OpenJDK 64-Bit Server VM (21.0.2+13-LTS mixed mode, sharing)");
+
+        private final int feature;
+
+        private final String vmVersion;
+
+        private JdkVersion(int feature, String vmVersion){
+            this.feature = feature;
+            this.vmVersion = vmVersion;
+        }
+
+        String getModuleVersion(){
+            return switch(this){
+                case JDK8 -> null;
+                case JDK11 -> "11.0.22";
+                case JDK17 -> "17.0.10";
+                case JDK21 -> "21.0.2";
+            };
+        }
+
+    }
+
+    private static enum Behavior{
+        IDLE_WORKER, REQUEST, COMPUTE, LOCK_HOLDER, LOCK_WAITER, SLEEPING, REFERENCE_HANDLER, FINALIZER, SIGNAL_DISPATCHER, VM_INTERNAL
+    }
+
+    private static class SyntheticThread{
+
+        private final String name;
+
+        private final int id;
+
+        private final long tid;
+
+        private final int nid;
+
+        private final boolean daemon;
+
+        private final Behavior behavior;
+
+        private final long lockAddress;
+
+        private final long lastJavaSP;
+
+        private double cpu;
+
+        private long allocated;
+
+        private int definedClasses;
+
+        private int phase;
+
+        private SyntheticThread(String name, int id, long tid, int nid, boolean daemon, Behavior behavior, long lockAddress, long lastJavaSP){
+            this.name = name;
+            this.id = id;
+            this.tid = tid;
+            this.nid = nid;
+            this.daemon = daemon;
+            this.behavior = behavior;
+            this.lockAddress = lockAddress;
+            this.lastJavaSP = lastJavaSP;
+        }
+
+        private boolean isJavaThread(){
+            return behavior != Behavior.VM_INTERNAL;
+        }
+
+    }
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String[][] SERVICES = {
+        {"com.example.shop.order.OrderService", "placeOrder", "OrderService.java"},
+        {"com.example.shop.order.OrderService", "cancelOrder", "OrderService.java"},
+        {"com.example.shop.catalog.CatalogService", "findProducts", "CatalogService.java"},
+        {"com.example.shop.payment.PaymentGateway", "authorize", "PaymentGateway.java"},
+        {"com.example.shop.user.SessionManager", "refresh", "SessionManager.java"}
+    };
+
+    private static final String[][] COMPUTE_FRAMES = {
+        {"com.example.shop.pricing.PriceCalculator", "applyDiscounts", "PriceCalculator.java"},
+        {"com.example.shop.pricing.TaxTable", "lookup", "TaxTable.java"},
+        {"java.util.HashMap", "putVal", "HashMap.java"},
+        {"java.util.ArrayList", "grow", "ArrayList.java"},
+        {"com.fasterxml.jackson.databind.ObjectMapper", "writeValueAsString", "ObjectMapper.java"},
+        {"java.lang.StringBuilder", "append", "StringBuilder.java"}
+    };
+
+    private final JdkVersion version;
+
+    private final Random random;
+
+    private final List<SyntheticThread> threads;
+
+    private final int pid;
+
+    private final long sharedLock;
+
+    private int nextId;
+
+    private int nextNid;
+
+    private long nextTid;
+
+    private int nextWorker;
+
+    SyntheticDumpGenerator(JdkVersion version, long seed, int poolSize){
+        this.version = version;
+        this.random = new Random(seed);
+        this.threads = new ArrayList<>();
+        this.pid = 1000 + random.nextInt(60000);
+        this.sharedLock = 0xc0000000L + (random.nextInt(0x100000) << 4);
+        this.nextId = 1;
+        this.nextNid = pid + 1;
+        this.nextTid = 0x7f3a2c000000L + (random.nextInt(0x1000) << 12);
+        this.nextWorker = 1;
+
+        addThread("main", false, Behavior.SLEEPING);
+        addThread("Reference Handler", true, Behavior.REFERENCE_HANDLER);
+        addThread("Finalizer", true, Behavior.FINALIZER);
+        addThread("Signal Dispatcher", true, Behavior.SIGNAL_DISPATCHER);
+        addThread("inventory-sync", true, Behavior.LOCK_HOLDER);
+        for(int i = 0; i < poolSize; i++){
+            addWorker();
+        }
+        addThread("VM Thread", false, Behavior.VM_INTERNAL);
+        for(int i = 0; i < 4; i++){
+            addThread(version == JdkVersion.JDK8 ? "GC task thread#" + i + " (ParallelGC)" : "GC Thread#" + i, false, Behavior.VM_INTERNAL);
+        }
+        addThread("VM Periodic Task Thread", false, Behavior.VM_INTERNAL);
+    }
+
+    private void addThread(String name, boolean daemon, Behavior behavior){
+        var thread = new SyntheticThread(name,
+                                         behavior == Behavior.VM_INTERNAL ? -1 : nextId++,
+                                         nextTid,
+                                         nextNid++,
+                                         daemon,
+                                         behavior,
+                                         0xc0000000L + (random.nextInt(0x1000000) << 4),
+                                         0x7f3a30000000L + (random.nextInt(0x100000) << 12));
+        nextTid += 0x1000 + (random.nextInt(0x100) << 4);
+
+        // Java threads are listed before VM internal threads.
+        int pos = threads.size();
+        if(behavior != Behavior.VM_INTERNAL){
+            while((pos > 0) && !threads.get(pos - 1).isJavaThread()){
+                pos--;
+            }
+        }
+        threads.add(pos, thread);
+    }
+
+    private void addWorker(){
+        var behaviors = new Behavior[]{Behavior.IDLE_WORKER, Behavior.IDLE_WORKER, Behavior.REQUEST, Behavior.REQUEST, Behavior.COMPUTE, Behavior.LOCK_WAITER};
+        addThread("http-nio-8080-exec-" + nextWorker++, true, behaviors[random.nextInt(behaviors.length)]);
+    }
+
+    /**
+     * @return PID of the JVM which is written as jcmd header for JDK 21.
+     */
+    int getPid(){
+        return pid;
+    }
+
+    /**
+     * Write a thread dump, and advance the state of threads.
+     */
+    void writeDump(Writer out, LocalDateTime time) throws IOException{
+        // Pool workers might be exited and created.
+        if(random.nextInt(4) == 0){
+            var workers = threads.stream().filter(t -> t.name.startsWith("http-nio-")).toList();
+            threads.remove(workers.get(random.nextInt(workers.size())));
+            addWorker();
+        }
+
+        if(version == JdkVersion.JDK21){
+            out.write(pid + ":\n");
+        }
+        out.write(time.format(TIME_FORMATTER) + "\n");
+        out.write("Full thread dump " + version.vmVersion + ":\n\n");
+
+        if(version.feature >= 11){
+            var javaThreads = threads.stream().filter(SyntheticThread::isJavaThread).toList();
+            out.write(String.format("Threads class SMR info:\n_java_thread_list=0x%016x, length=%d, elements={\n", nextTid + 0x800, javaThreads.size()));
+            for(int i = 0; i < javaThreads.size(); i++){
+                out.write(String.format("0x%016x", javaThreads.get(i).tid));
+                out.write((i == javaThreads.size() - 1) ? "\n" : ((i % 4 == 3) ? ",\n" : ", "));
+            }
+            out.write("}\n\n");
+        }
+
+        for(var thread : threads){
+            writeThread(out, thread);
+        }
+
+        if(version == JdkVersion.JDK8){
+            out.write("JNI global references: " + (200 + random.nextInt(100)) + "\n\n");
+        }
+        else{
+            out.write("JNI global refs: " + (200 + random.nextInt(100)) + ", weak refs: " + random.nextInt(10) + "\n\n");
+        }
+    }
+
+    /**
+     * Write thread dumps until the size of the file exceeds targetBytes.
+     *
+     * @return number of thread dumps.
+     */
+    int writeFile(Path file, LocalDateTime start, long targetBytes) throws IOException{
+        int dumps = 0;
+        try(var out = new BufferedWriter(Files.newBufferedWriter(file), 1024 * 1024)){
+            var time = start;
+            do{
+                writeDump(out, time);
+                time = time.plusSeconds(10);
+                dumps++;
+                out.flush();
+            }while(Files.size(file) < targetBytes);
+        }
+        return dumps;
+    }
+
+    private void writeThread(Writer out, SyntheticThread thread) throws IOException{
+        thread.cpu += random.nextInt(5000) / 100.0d;
+        thread.allocated += random.nextInt(1024 * 1024);
+        thread.definedClasses += random.nextInt(3);
+        if(random.nextInt(3) != 0){
+            thread.phase++;
+        }
+
+        var header = new StringBuilder();
+        header.append('"').append(thread.name).append('"');
+        if(thread.isJavaThread()){
+            header.append(" #").append(thread.id);
+            if(version == JdkVersion.JDK21){
+                header.append(" [").append(thread.nid).append(']');
+            }
+            if(thread.daemon){
+                header.append(" daemon");
+            }
+            header.append(" prio=").append(thread.behavior == Behavior.REFERENCE_HANDLER ? 10 : (thread.behavior == Behavior.FINALIZER ? 8 : 5));
+        }
+        header.append(" os_prio=0");
+        if(version.feature >= 11){
+            header.append(String.format(" cpu=%.2fms elapsed=%.2fs", thread.cpu, 100.0d + thread.phase * 10.0d));
+        }
+        if((version.feature >= 17) && thread.isJavaThread()){
+            header.append(" allocated=").append(formatBytes(thread.allocated));
+            header.append(" defined_classes=").append(thread.definedClasses);
+        }
+        header.append(String.format(" tid=0x%016x", thread.tid));
+        header.append((version == JdkVersion.JDK21) ? " nid=" + thread.nid : String.format(" nid=0x%x", thread.nid));
+
+        var frames = new ArrayList<String>();
+        String state;
+        String threadState;
+        switch(thread.behavior){
+            case IDLE_WORKER -> {
+                state = "waiting on condition";
+                threadState = "WAITING (parking)";
+                parkFrames(frames, thread.lockAddress, "java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject");
+                frames.add(jdkFrame("java.util.concurrent.locks.AbstractQueuedSynchronizer$ConditionObject", "await", "AbstractQueuedSynchronizer.java", 1623));
+                frames.add(jdkFrame("java.util.concurrent.LinkedBlockingQueue", "take", "LinkedBlockingQueue.java", 435));
+                frames.add(jdkFrame("java.util.concurrent.ThreadPoolExecutor", "getTask", "ThreadPoolExecutor.java", 1062));
+                poolFrames(frames);
+            }
+            case REQUEST -> {
+                state = "runnable";
+                threadState = "RUNNABLE";
+                if(version == JdkVersion.JDK8){
+                    frames.add(frame(null, "java.net.SocketInputStream", "socketRead0", null, -1));
+                    frames.add(frame(null, "java.net.SocketInputStream", "socketRead", "SocketInputStream.java", 116));
+                }
+                else{
+                    frames.add(jdkFrame("sun.nio.ch.SocketDispatcher", "read0", null, -1));
+                    frames.add(jdkFrame("sun.nio.ch.NioSocketImpl", "implRead", "NioSocketImpl.java", 309));
+                }
+                frames.add(frame(null, "org.postgresql.core.PGStream", "receiveChar", "PGStream.java", 372));
+                frames.add(frame(null, "org.postgresql.core.v3.QueryExecutorImpl", "processResults", "QueryExecutorImpl.java", 2175));
+                serviceFrames(frames, thread);
+                poolFrames(frames);
+            }
+            case COMPUTE -> {
+                state = "runnable";
+                threadState = "RUNNABLE";
+                int depth = 1 + (thread.phase % 4);
+                for(int i = 0; i < depth; i++){
+                    var c = COMPUTE_FRAMES[(thread.phase + i * 7 + random.nextInt(2)) % COMPUTE_FRAMES.length];
+                    frames.add(frame(c[0].startsWith("java.") ? "java.base" : null, c[0], c[1], c[2], 100 + (thread.phase * 13 + i) % 400));
+                }
+                serviceFrames(frames, thread);
+                poolFrames(frames);
+            }
+            case LOCK_HOLDER -> {
+                state = "runnable";
+                threadState = "RUNNABLE";
+                frames.add(frame(null, "com.example.shop.inventory.InventoryStore", "load", "InventoryStore.java", 40 + thread.phase % 20));
+                frames.add(frame(null, "com.example.shop.inventory.InventoryCache", "refresh", "InventoryCache.java", 112) +
+                           lock("locked", sharedLock, "com.example.shop.inventory.InventoryCache"));
+                frames.add(frame(null, "com.example.shop.inventory.InventorySync", "run", "InventorySync.java", 31));
+                frames.add(threadRun());
+            }
+            case LOCK_WAITER -> {
+                state = "waiting for monitor entry";
+                threadState = "BLOCKED (on object monitor)";
+                frames.add(frame(null, "com.example.shop.inventory.InventoryCache", "reserve", "InventoryCache.java", 88) +
+                           lock("waiting to lock", sharedLock, "com.example.shop.inventory.InventoryCache"));
+                serviceFrames(frames, thread);
+                poolFrames(frames);
+            }
+            case SLEEPING -> {
+                state = "waiting on condition";
+                threadState = "TIMED_WAITING (sleeping)";
+                if(version == JdkVersion.JDK21){
+                    frames.add(jdkFrame("java.lang.Thread", "sleep0", null, -1));
+                    frames.add(jdkFrame("java.lang.Thread", "sleep", "Thread.java", 509));
+                }
+                else{
+                    frames.add(jdkFrame("java.lang.Thread", "sleep", null, -1));
+                }
+                frames.add(frame(null, "com.example.shop.Main", "main", "Main.java", 27));
+            }
+            case REFERENCE_HANDLER -> {
+                if(version.feature >= 17){
+                    state = "runnable";
+                    threadState = "RUNNABLE";
+                    frames.add(jdkFrame("java.lang.ref.Reference", "waitForReferencePendingList", null, -1));
+                    frames.add(jdkFrame("java.lang.ref.Reference", "processPendingReferences", "Reference.java", 246));
+                }
+                else{
+                    state = "in Object.wait()";
+                    threadState = "WAITING (on object monitor)";
+                    frames.add(jdkFrame("java.lang.Object", "wait", null, -1) + lock("waiting on", thread.lockAddress, "java.lang.ref.Reference$Lock"));
+                    frames.add(jdkFrame("java.lang.Object", "wait", "Object.java", 502));
+                    frames.add(jdkFrame("java.lang.ref.Reference", "tryHandlePending", "Reference.java", 191) + lock("locked", thread.lockAddress, "java.lang.ref.Reference$Lock"));
+                }
+                frames.add(jdkFrame("java.lang.ref.Reference$ReferenceHandler", "run", "Reference.java", 153));
+            }
+            case FINALIZER -> {
+                state = "in Object.wait()";
+                threadState = "WAITING (on object monitor)";
+                frames.add(jdkFrame("java.lang.Object", "wait", null, -1) + lock("waiting on", thread.lockAddress, "java.lang.ref.ReferenceQueue$Lock"));
+                frames.add(jdkFrame("java.lang.ref.ReferenceQueue", "remove", "ReferenceQueue.java", 155) + lock("locked", thread.lockAddress, "java.lang.ref.ReferenceQueue$Lock"));
+                frames.add(jdkFrame("java.lang.ref.Finalizer$FinalizerThread", "run", "Finalizer.java", 172));
+            }
+            case SIGNAL_DISPATCHER -> {
+                state = "runnable";
+                threadState = "RUNNABLE";
+            }
+            default -> {
+                state = "runnable";
+                threadState = null;
+            }
+        }
+
+        out.write(header.toString());
+        out.write(" " + state);
+        if(thread.isJavaThread() && !frames.isEmpty()){
+            out.write(String.format("  [0x%016x]", thread.lastJavaSP));
+        }
+        out.write("\n");
+        if(threadState != null){
+            out.write("   java.lang.Thread.State: " + threadState + "\n");
+        }
+        for(var frame : frames){
+            out.write(frame);
+        }
+        if(thread.isJavaThread()){
+            out.write("\n   Locked ownable synchronizers:\n");
+            out.write((thread.behavior == Behavior.LOCK_HOLDER) ? String.format("\t- <0x%016x> (a java.util.concurrent.locks.ReentrantLock$NonfairSync)\n", thread.lockAddress) : "\t- None\n");
+        }
+        out.write("\n");
+    }
+
+    private static String formatBytes(long bytes){
+        if(bytes < 1024){
+            return bytes + "B";
+        }
+        else if(bytes < 1024 * 1024){
+            return (bytes / 1024) + "K";
+        }
+        else{
+            return (bytes / 1024 / 1024) + "M";
+        }
+    }
+
+    private String frame(String module, String className, String method, String file, int line){
+        var location = (file == null) ? "Native Method" : file + ":" + line;
+        if((module != null) && (version != JdkVersion.JDK8)){
+            location = module + "@" + version.getModuleVersion() + "/" + location;
+        }
+        return "\tat " + className + "." + method + "(" + location + ")\n";
+    }
+
+    private String jdkFrame(String className, String method, String file, int line){
+        return frame("java.base", className, method, file, line);
+    }
+
+    private static String lock(String description, long address, String lockClass){
+        return String.format("\t- %s <0x%016x> (a %s)\n", description, address, lockClass);
+    }
+
+    private String threadRun(){
+        return jdkFrame("java.lang.Thread", "run", "Thread.java", switch(version){
+            case JDK8 -> 748;
+            case JDK11 -> 829;
+            case JDK17 -> 833;
+            case JDK21 -> 1583;
+        });
+    }
+
+    private void parkFrames(List<String> frames, long address, String lockClass){
+        var unsafe = (version == JdkVersion.JDK8) ? "sun.misc.Unsafe" : "jdk.internal.misc.Unsafe";
+        frames.add(jdkFrame(unsafe, "park", null, -1) + lock("parking to wait for ", address, lockClass));
+        frames.add(jdkFrame("java.util.concurrent.locks.LockSupport", "park", "LockSupport.java", 341));
+    }
+
+    private void serviceFrames(List<String> frames, SyntheticThread thread){
+        var service = SERVICES[(thread.id + thread.phase / 3) % SERVICES.length];
+        frames.add(frame(null, service[0], service[1], service[2], 50 + (thread.id * 31 + thread.phase / 3) % 200));
+        frames.add(frame(null, "com.example.shop.web.ApiController", "dispatch", "ApiController.java", 64));
+        frames.add(frame(null, "org.springframework.web.servlet.DispatcherServlet", "doDispatch", "DispatcherServlet.java", 1089));
+        frames.add(frame(null, "org.apache.catalina.core.ApplicationFilterChain", "doFilter", "ApplicationFilterChain.java", 166));
+        frames.add(frame(null, "org.apache.coyote.http11.Http11Processor", "service", "Http11Processor.java", 391));
+        frames.add(frame(null, "org.apache.tomcat.util.net.NioEndpoint$SocketProcessor", "doRun", "NioEndpoint.java", 1791));
+    }
+
+    private void poolFrames(List<String> frames){
+        frames.add(jdkFrame("java.util.concurrent.ThreadPoolExecutor", "runWorker", "ThreadPoolExecutor.java", 1136));
+        frames.add(jdkFrame("java.util.concurrent.ThreadPoolExecutor$Worker", "run", "ThreadPoolExecutor.java", 635));
+        frames.add(frame(null, "org.apache.tomcat.util.threads.TaskThread$WrappingRunnable", "run", "TaskThread.java", 61));
+        frames.add(threadRun());
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compare ThreadDumpParser output for synthetic thread dumps with golden
+ * files. Run with -Dthreaddumper.golden.update=true to regenerate golden
+ * files after intended changes of the parser or the generator.
+ *
+ * @author yasuenag
+ */
+class ThreadDumpParserGoldenTest {
+
+    private static final Path GOLDEN_DIR = Path.of("src", "test", "resources", "com", "yasuenag", "threaddumper", "parser", "golden");
+
+    private static final String UPDATE_PROPERTY = "threaddumper.golden.update";
+
+    private static final int DUMPS = 3;
+
+    private static final int POOL_SIZE = 12;
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @EnumSource(SyntheticDumpGenerator.JdkVersion.class)
+    void parse(SyntheticDumpGenerator.JdkVersion version) throws IOException{
+        var generator = new SyntheticDumpGenerator(version, 20260101L + version.ordinal(), POOL_SIZE);
+        var file = tempDir.resolve("app-1_pid" + generator.getPid() + "_" + version.name().toLowerCase() + ".txt");
+        try(var out = Files.newBufferedWriter(file)){
+            var time = LocalDateTime.of(2026, 1, 1, 9, 0, 0);
+            for(int i = 0; i < DUMPS; i++){
+                generator.writeDump(out, time.plusSeconds(i * 10));
+            }
+        }
+
+        var statistics = new ParseStatistics();
+        var dumps = ThreadDumpParser.parse(List.of(file), ThreadDumpParser.Mode.STRICT, statistics);
+        assertEquals(DUMPS, dumps.size());
+        assertEquals(0, statistics.getUnmatchedLines());
+        dumps.forEach(d -> assertTrue(d.getDiagnostics().isEmpty(), () -> d.getDiagnostics().toString()));
+
+        var actual = render(dumps);
+        var golden = GOLDEN_DIR.resolve(version.name().toLowerCase() + ".golden");
+        if(Boolean.getBoolean(UPDATE_PROPERTY)){
+            Files.createDirectories(GOLDEN_DIR);
+            Files.writeString(golden, actual);
+            return;
+        }
+        if(!Files.exists(golden)){
+            fail(golden + " does not exist. Run with -D" + UPDATE_PROPERTY + "=true to create it.");
+        }
+
+        // Report the first different line rather than whole output.
+        var expectedLines = Files.readAllLines(golden);
+        var actualLines = actual.lines().toList();
+        for(int i = 0; i < Math.min(expectedLines.size(), actualLines.size()); i++){
+            assertEquals(expectedLines.get(i), actualLines.get(i), golden + ":" + (i + 1));
+        }
+        assertEquals(expectedLines.size(), actualLines.size(), "Number of lines in " + golden);
+    }
+
+    private static String opt(OptionalInt value){
+        return value.isPresent() ? Integer.toString(value.getAsInt()) : "-";
+    }
+
+    private static String opt(OptionalLong value){
+        return value.isPresent() ? Long.toString(value.getAsLong()) : "-";
+    }
+
+    private static String opt(OptionalDouble value){
+        return value.isPresent() ? String.format("%.2f", value.getAsDouble()) : "-";
+    }
+
+    private static String render(List<ThreadDump> dumps){
+        var result = new StringBuilder();
+
+        for(var dump : dumps){
+            result.append("dump ").append(dump.getTime())
+                  .append(" source=").append(dump.getSource())
+                  .append(" vm=").append(dump.getVmVersion())
+                  .append(" jniGlobalRefs=").append(dump.getJniGlobalRefs())
+                  .append(" weakRefs=").append(dump.getWeakRefs())
+                  .append('\n');
+            dump.getSMRInfo().ifPresent(smr -> {
+                result.append("  smr list=0x").append(Long.toHexString(smr.getJavaThreadList())).append(" threads=");
+                for(var thread : smr.getJavaThreads()){
+                    result.append(" 0x").append(Long.toHexString(thread));
+                }
+                result.append('\n');
+            });
+
+            for(var thread : dump.getThreads()){
+                result.append("  thread \"").append(thread.getName()).append('"')
+                      .append(" id=").append(opt(thread.getId()))
+                      .append(" daemon=").append(thread.isDaemon())
+                      .append(" prio=").append(opt(thread.getPrio()))
+                      .append(" osPrio=").append(opt(thread.getOsPrio()))
+                      .append(" cpu=").append(opt(thread.getCpu()))
+                      .append(" elapsed=").append(opt(thread.getElapsed()))
+                      .append(" allocated=").append(opt(thread.getAllocated()))
+                      .append(" definedClasses=").append(opt(thread.getDefinedClasses()))
+                      .append(" tid=0x").append(Long.toHexString(thread.getTid()))
+                      .append(" nid=").append(thread.getNid())
+                      .append(" lastJavaSP=").append(thread.getLastJavaSP().isPresent() ? "0x" + Long.toHexString(thread.getLastJavaSP().getAsLong()) : "-")
+                      .append('\n')
+                      .append("    state=").append(thread.getState())
+                      .append(" threadState=").append(thread.getThreadState().map(Thread.State::name).orElse("-"))
+                      .append(" (").append(thread.getThreadStateDescription().orElse("-")).append(")")
+                      .append('\n');
+                for(var frame : thread.getCallFrames()){
+                    result.append("    at ").append(frame.getStackTraceElement());
+                    frame.getLock().ifPresent(l -> result.append("  [").append(l.getDescription())
+                                                         .append(" 0x").append(Long.toHexString(l.getAddress()))
+                                                         .append(" ").append(l.getLockClass()).append("]"));
+                    result.append('\n');
+                }
+            }
+        }
+
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Throughput and allocation budgets of ThreadDumpParser for large synthetic
+ * corpus (1 GB by default). It runs only with "perf" profile:
+ *
+ * <pre>
+ * $ mvn test -Pperf [-Dthreaddumper.perf.corpusMB=1024] [-Dthreaddumper.perf.tolerance=10] [-Dthreaddumper.perf.iterations=3]
+ * </pre>
+ *
+ * The test fails if the best throughput or allocation in iterations
+ * regresses more than the tolerance (%) from the baseline. Allocation per
+ * input byte does not depend on the machine, so its baseline is in the
+ * repository. Throughput depends on the machine, so its baseline is recorded
+ * locally (perf-throughput.properties, or -Dthreaddumper.perf.throughputBaseline)
+ * on the machine which runs this test with -Dthreaddumper.perf.record=true.
+ * The test fails if it has not been recorded.
+ *
+ * @author yasuenag
+ */
+@Tag("perf")
+class ThreadDumpParserPerformanceTest {
+
+    private static final Path BASELINE = Path.of("src", "test", "resources", "com", "yasuenag", "threaddumper", "parser", "perf-baseline.properties");
+
+    private static final Path THROUGHPUT_BASELINE = Path.of(System.getProperty("threaddumper.perf.throughputBaseline", "perf-throughput.properties"));
+
+    private static final Path CORPUS_DIR = Path.of("target", "perf-corpus");
+
+    private static final long MB = 1024 * 1024;
+
+    private static final int FILES = 8;
+
+    private static final long SEED = 20260401L;
+
+    /**
+     * Generate the corpus, or reuse it if it has been generated.
+     */
+    private static List<Path> prepareCorpus(long corpusMB) throws IOException{
+        var dir = CORPUS_DIR.resolve(corpusMB + "MB-" + SEED);
+        var complete = dir.resolve("complete");
+        var versions = SyntheticDumpGenerator.JdkVersion.values();
+        List<Path> files = new ArrayList<>();
+
+        Files.createDirectories(dir);
+        for(int i = 0; i < FILES; i++){
+            var version = versions[i % versions.length];
+            var generator = new SyntheticDumpGenerator(version, SEED + i, 150);
+            var file = dir.resolve("app-" + i + "_pid" + generator.getPid() + "_" + version.name().toLowerCase() + ".txt");
+            if(!Files.exists(complete)){
+                generator.writeFile(file, LocalDateTime.of(2026, 4, 1, 0, 0, 0), corpusMB * MB / FILES);
+            }
+            files.add(file);
+        }
+        Files.writeString(complete, "");
+
+        return files;
+    }
+
+    private static Properties load(Path path) throws IOException{
+        var properties = new Properties();
+        try(InputStream in = Files.newInputStream(path)){
+            properties.load(in);
+        }
+        return properties;
+    }
+
+    private static void store(Properties properties, Path path, String comment) throws IOException{
+        try(OutputStream out = Files.newOutputStream(path)){
+            properties.store(out, comment);
+        }
+    }
+
+    @Test
+    void parseCorpus() throws IOException{
+        long corpusMB = Long.getLong("threaddumper.perf.corpusMB", 1024);
+        double tolerance = Double.parseDouble(System.getProperty("threaddumper.perf.tolerance", "10")) / 100.0d;
+        int iterations = Integer.getInteger("threaddumper.perf.iterations", 3);
+        var files = prepareCorpus(corpusMB);
+
+        // Warm up
+        ThreadDumpParser.parse(files.subList(0, 1), ThreadDumpParser.Mode.RESILIENT, new ParseStatistics(), d -> {});
+
+        // Best result is used because throughput is affected by other processes.
+        double throughput = 0.0d;
+        double allocation = Double.MAX_VALUE;
+        for(int i = 0; i < iterations; i++){
+            // Thread dumps are discarded to measure the parser only.
+            var statistics = new ParseStatistics();
+            var threads = new AtomicLong();
+            ThreadDumpParser.parse(files, ThreadDumpParser.Mode.RESILIENT, statistics, d -> threads.addAndGet(d.getThreads().size()));
+            assertEquals(0, statistics.getUnmatchedLines());
+            assertEquals(statistics.getThreads(), threads.get());
+
+            double currentThroughput = statistics.getBytesPerSecond() / MB;
+            double currentAllocation = (double)statistics.getAllocatedBytes() / statistics.getBytes();
+            System.out.printf("#%d: throughput: %.1f MB/s, allocation: %.2f bytes per input byte%n", i, currentThroughput, currentAllocation);
+            throughput = Math.max(throughput, currentThroughput);
+            allocation = Math.min(allocation, currentAllocation);
+        }
+
+        if(Boolean.getBoolean("threaddumper.perf.record")){
+            var baseline = new Properties();
+            baseline.setProperty("allocationPerByte", String.format("%.2f", allocation));
+            store(baseline, BASELINE, "ThreadDumpParser allocation baseline (" + corpusMB + " MB)");
+
+            var local = new Properties();
+            local.setProperty("throughputMBps", String.format("%.1f", throughput));
+            store(local, THROUGHPUT_BASELINE, "ThreadDumpParser throughput baseline of this machine (" + corpusMB + " MB, " + Runtime.getRuntime().availableProcessors() + " CPUs)");
+            return;
+        }
+
+        double baseAllocation = Double.parseDouble(load(BASELINE).getProperty("allocationPerByte"));
+        assertTrue(allocation <= baseAllocation * (1.0d + tolerance),
+                   String.format("Allocation regressed: %.2f bytes per input byte (baseline %.2f)", allocation, baseAllocation));
+
+        if(!Files.exists(THROUGHPUT_BASELINE)){
+            fail("Throughput baseline of this machine is not found at " + THROUGHPUT_BASELINE.toAbsolutePath() +
+                 ". Record it with -Dthreaddumper.perf.record=true before code changes.");
+        }
+        double baseThroughput = Double.parseDouble(load(THROUGHPUT_BASELINE).getProperty("throughputMBps"));
+        assertTrue(throughput >= baseThroughput * (1.0d - tolerance),
+                   String.format("Throughput regressed: %.1f MB/s (baseline %.1f MB/s)", throughput, baseThroughput));
+    }
+
+}
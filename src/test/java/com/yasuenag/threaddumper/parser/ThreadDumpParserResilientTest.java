@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parse broken thread dumps in resilient mode. Problems are recorded as
+ * diagnostics, and they are errors in strict mode.
+ *
+ * @author yasuenag
+ */
+class ThreadDumpParserResilientTest {
+
+    private static Path fixture(String name) throws URISyntaxException{
+        return Path.of(ThreadDumpParserResilientTest.class.getResource("resilient/" + name).toURI());
+    }
+
+    private static ThreadDump parse(String name) throws URISyntaxException{
+        var dumps = ThreadDumpParser.parse(List.of(fixture(name)), ThreadDumpParser.Mode.RESILIENT);
+        assertEquals(1, dumps.size());
+        return dumps.get(0);
+    }
+
+    private static List<String> messages(ThreadDump dump){
+        return dump.getDiagnostics()
+                   .stream()
+                   .map(ParseDiagnostic::getMessage)
+                   .collect(Collectors.toList());
+    }
+
+    private static List<String> frames(ThreadInfo thread){
+        return thread.getCallFrames()
+                     .stream()
+                     .map(f -> f.getStackTraceElement().getMethodName())
+                     .collect(Collectors.toList());
+    }
+
+    private static void assertStrictFails(String name){
+        assertThrows(IllegalArgumentException.class, () -> ThreadDumpParser.parse(List.of(fixture(name)), ThreadDumpParser.Mode.STRICT));
+    }
+
+    @Test
+    void truncated() throws URISyntaxException{
+        var dump = parse("truncated.txt");
+
+        assertEquals(List.of("Thread dump is truncated"), messages(dump));
+        assertEquals(3, dump.getThreads().size());
+        assertEquals(List.of("sleep", "main"), frames(dump.getThreads().get(0)));
+
+        // The last frame is cut in the middle of the line.
+        var writer = dump.getThreads().get(2);
+        assertEquals("writer", writer.getName());
+        assertEquals(List.of("writeBytes"), frames(writer));
+        assertStrictFails("truncated.txt");
+    }
+
+    @Test
+    void interleavedGCLog() throws URISyntaxException{
+        var dump = parse("interleaved-gc.txt");
+
+        // GC logs are skipped without breaking call stacks.
+        assertTrue(dump.getDiagnostics().isEmpty(), () -> dump.getDiagnostics().toString());
+        assertEquals(2, dump.getSkippedLines());
+        assertEquals(2, dump.getThreads().size());
+        assertEquals(List.of("sleep", "main"), frames(dump.getThreads().get(0)));
+        assertEquals(Optional.of(Thread.State.RUNNABLE), dump.getThreads().get(1).getThreadState());
+        assertEquals(10, dump.getJniGlobalRefs());
+    }
+
+    @Test
+    void lockWithoutFrame() throws URISyntaxException{
+        var dump = parse("lock-without-frame.txt");
+
+        assertEquals(List.of("Lock is found before call frame"), messages(dump));
+        assertEquals(6, dump.getDiagnostics().get(0).getLineNumber());
+
+        var thread = dump.getThreads().get(0);
+        assertEquals(List.of("get", "run"), frames(thread));
+        assertEquals(List.of(0xc0000200L), thread.getLocks().stream().map(ThreadInfo.LockInfo::getAddress).collect(Collectors.toList()));
+        assertStrictFails("lock-without-frame.txt");
+    }
+
+    @Test
+    void unknownThreadState() throws URISyntaxException{
+        var dump = parse("unknown-state.txt");
+
+        assertEquals(List.of("Unknown thread state"), messages(dump));
+        assertEquals(2, dump.getThreads().size());
+
+        var suspended = dump.getThreads().get(0);
+        assertEquals(Optional.empty(), suspended.getThreadState());
+        assertEquals(List.of("run"), frames(suspended));
+        assertEquals(Optional.of(Thread.State.RUNNABLE), dump.getThreads().get(1).getThreadState());
+        assertStrictFails("unknown-state.txt");
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rows in ThreadInfoStore.
+ *
+ * @author yasuenag
+ */
+class ThreadInfoStoreTest {
+
+    @Test
+    void growAndRead(){
+        var store = new ThreadInfoStore(1);
+        for(int i = 0; i < 100; i++){
+            int row = store.addRow();
+            assertEquals(i, row);
+            if(i % 2 == 0){
+                store.setCpu(row, i * 1.5d);
+            }
+        }
+
+        assertEquals(100, store.size());
+        for(int i = 0; i < 100; i++){
+            assertEquals(i % 2 == 0, store.isPresent(ThreadInfoStore.CPU, i));
+            if(i % 2 == 0){
+                assertEquals(i * 1.5d, store.getCpu(i));
+            }
+        }
+    }
+
+    @Test
+    void removeLastRow(){
+        var store = new ThreadInfoStore();
+        store.addRow();
+        int row = store.addRow();
+        store.setThreadState(row, Thread.State.WAITING);
+        store.removeRow(row);
+        assertEquals(1, store.size());
+
+        // Removed row is reused without attributes.
+        assertEquals(row, store.addRow());
+        assertFalse(store.isPresent(ThreadInfoStore.THREAD_STATE, row));
+    }
+
+    @Test
+    void removeNonTailRow(){
+        var store = new ThreadInfoStore();
+        int row = store.addRow();
+        store.setDaemon(row, true);
+        store.addRow();
+
+        assertThrows(IllegalArgumentException.class, () -> store.removeRow(row));
+        assertEquals(2, store.size());
+        assertTrue(store.isDaemon(row));
+    }
+
+}
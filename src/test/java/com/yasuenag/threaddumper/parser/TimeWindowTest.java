@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Thread dumps out of TimeWindow are skipped while parsing.
+ *
+ * @author yasuenag
+ */
+class TimeWindowTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 1, 1, 9, 0, 0);
+
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String DUMP = """
+            %s
+            Full thread dump OpenJDK 64-Bit Server VM (17.0.9+9 mixed mode, sharing):
+
+            "main" #1 prio=5 os_prio=0 cpu=10.00ms elapsed=10.00s tid=0x00007f0000001000 nid=0x101 runnable  [0x00007f0000100000]
+               java.lang.Thread.State: RUNNABLE
+            \tat com.example.Main.main(Main.java:10)
+
+            JNI global refs: 10, weak refs: 0
+
+            """;
+
+    // It cannot be parsed in strict mode because the lock precedes call frames
+    // and the thread state is unknown.
+    private static final String BROKEN_DUMP = """
+            %s
+            Full thread dump OpenJDK 64-Bit Server VM (17.0.9+9 mixed mode, sharing):
+
+            "broken" #2 prio=5 os_prio=0 cpu=10.00ms elapsed=10.00s tid=0x00007f0000002000 nid=0x102 runnable  [0x00007f0000200000]
+               java.lang.Thread.State: UNKNOWN_STATE
+            \t- locked <0x00000000c0000100> (a java.lang.Object)
+            \tat com.example.Broken.run(Broken.java:10)
+
+            JNI global refs: 10, weak refs: 0
+
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private static String timestamp(int seconds){
+        return TIME.plusSeconds(seconds).format(TIMESTAMP_FORMATTER);
+    }
+
+    @Test
+    void contains(){
+        var window = new TimeWindow(TIME, TIME.plusSeconds(10));
+        assertTrue(window.contains(TIME));
+        assertTrue(window.contains(TIME.plusSeconds(10)));
+        assertFalse(window.contains(TIME.minusNanos(1)));
+        assertFalse(window.contains(TIME.plusSeconds(11)));
+        assertFalse(window.isAll());
+
+        assertTrue(new TimeWindow(null, TIME).contains(LocalDateTime.MIN));
+        assertTrue(new TimeWindow(TIME, null).contains(LocalDateTime.MAX));
+        assertTrue(TimeWindow.ALL.isAll());
+        assertThrows(IllegalArgumentException.class, () -> new TimeWindow(TIME.plusSeconds(1), TIME));
+    }
+
+    @Test
+    void skipWithoutParsingThreads() throws IOException{
+        var file = tempDir.resolve("app.txt");
+        Files.writeString(file, BROKEN_DUMP.formatted(timestamp(0)) +
+                                "12345:\n" +
+                                DUMP.formatted(timestamp(10)) +
+                                BROKEN_DUMP.formatted(timestamp(20)));
+
+        // Strict mode fails if threads in skipped thread dumps are parsed.
+        var statistics = new ParseStatistics();
+        var dumps = ThreadDumpParser.parse(List.of(file), ThreadDumpParser.Mode.STRICT, new TimeWindow(TIME.plusSeconds(5), TIME.plusSeconds(15)), statistics);
+
+        assertEquals(1, dumps.size());
+        var dump = dumps.get(0);
+        assertEquals(TIME.plusSeconds(10), dump.getTime());
+        assertEquals(List.of("main"), dump.getThreads().stream().map(ThreadInfo::getName).collect(Collectors.toList()));
+        // PID of jcmd in front of the thread dump is kept while skipping.
+        assertEquals(12345L, dump.getSource().getPid().getAsLong());
+
+        assertEquals(1, statistics.getDumps());
+        assertEquals(2, statistics.getSkippedDumps());
+        assertEquals(1, statistics.getThreads());
+        assertEquals(0, statistics.getUnmatchedLines());
+
+        // Whole file is parsed without window, so broken thread dumps are found.
+        assertThrows(IllegalArgumentException.class, () -> ThreadDumpParser.parse(List.of(file), ThreadDumpParser.Mode.STRICT));
+    }
+
+    @Test
+    void skipAll() throws IOException{
+        var file = tempDir.resolve("app.txt");
+        Files.writeString(file, DUMP.formatted(timestamp(0)) + DUMP.formatted(timestamp(10)));
+
+        var statistics = new ParseStatistics();
+        var dumps = ThreadDumpParser.parse(List.of(file), ThreadDumpParser.Mode.STRICT, new TimeWindow(TIME.plusSeconds(20), null), statistics);
+        assertTrue(dumps.isEmpty());
+        assertEquals(2, statistics.getSkippedDumps());
+    }
+
+    @Test
+    void skipJsonWithoutParsingThreads() throws IOException{
+        var json = """
+                {
+                  "threadDump": {
+                    "processId": "4242",
+                    "time": "2026-01-01T09:00:00",
+                    "runtimeVersion": "21.0.1+12-LTS",
+                    "threadContainers": [
+                      {
+                        "container": "<root>",
+                        "threads": [
+                          {
+                            "tid": "1",
+                            "name": "main",
+                            "state": "RUNNABLE",
+                            "stack": [
+                              "app\\/\\/Main.main(Main.java:5)"
+                            ]
+                          }
+                        ]
+                      }
+                    ]
+                  }
+                }
+                """;
+        var window = new TimeWindow(TIME.plusSeconds(1), null);
+        assertNull(JsonThreadDumpParser.parse(DumpSource.UNKNOWN, new StringReader(json), window, t -> fail("Thread is parsed: " + t)));
+
+        // The thread is passed to the consumer if the thread dump is in the window.
+        int[] threads = new int[1];
+        JsonThreadDumpParser.parse(DumpSource.UNKNOWN, new StringReader(json), new TimeWindow(TIME, TIME), t -> threads[0]++);
+        assertEquals(1, threads[0]);
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.server;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Output of JsonWriter.
+ *
+ * @author yasuenag
+ */
+class JsonWriterTest {
+
+    private static String writeString(String value) throws IOException{
+        var out = new StringWriter();
+        new JsonWriter(out).value(value);
+        return out.toString();
+    }
+
+    @Test
+    void escape() throws IOException{
+        assertEquals("\"a\\\"b\\\\c\"", writeString("a\"b\\c"));
+        assertEquals("\"\\n\\r\\t\"", writeString("\n\r\t"));
+        assertEquals("\"\\u0000\\u001f\"", writeString("\u0000\u001f"));
+        assertEquals("\"/ あ \u007f\"", writeString("/ あ \u007f"));
+        assertEquals("null", writeString(null));
+    }
+
+    @Test
+    void escapeName() throws IOException{
+        var out = new StringWriter();
+        new JsonWriter(out).beginObject()
+                           .name("a\"b").value(1)
+                           .endObject();
+        assertEquals("{\"a\\\"b\":1}", out.toString());
+    }
+
+    @Test
+    void separators() throws IOException{
+        var out = new StringWriter();
+        new JsonWriter(out).beginObject()
+                           .name("array").beginArray()
+                                           .value(1)
+                                           .value(true)
+                                           .beginObject().endObject()
+                                           .beginArray().endArray()
+                                         .endArray()
+                           .name("nan").value(Double.NaN)
+                           .name("cpu").value(1.5d)
+                           .endObject();
+        assertEquals("{\"array\":[1,true,{},[]],\"nan\":null,\"cpu\":1.5}", out.toString());
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 Yasumasa Suenaga
+ *
+ * This file is part of ThreadDumper.
+ *
+ * UL Viewer is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * ThreadDumper is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with ThreadDumper.  If not, see <http://www.gnu.org/licenses/>.
+*/
+package com.yasuenag.threaddumper.server;
+
+import com.yasuenag.threaddumper.parser.DumpSource;
+import com.yasuenag.threaddumper.parser.ParseStatistics;
+import com.yasuenag.threaddumper.parser.ThreadDump;
+import com.yasuenag.threaddumper.parser.ThreadInfo;
+import java.time.LocalDateTime;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * LRU eviction of SessionCache under the budget.
+ *
+ * @author yasuenag
+ */
+class SessionCacheTest {
+
+    private static Session createSession(String id){
+        var dump = new ThreadDump(DumpSource.UNKNOWN, LocalDateTime.of(2026, 1, 1, 0, 0));
+        var thread = new ThreadInfo(dump.getThreadInfoStore(), DumpSource.UNKNOWN, dump.getTime(), "main", 1, 1, "runnable");
+        var callFrames = new LinkedList<ThreadInfo.CallFrame>();
+        callFrames.add(new ThreadInfo.CallFrame("com.example.Main", null, null, "main", "Main.java", 10));
+        thread.setCallFrames(callFrames);
+        dump.getThreads().add(thread);
+        return new Session(id, id + ".txt", List.of(dump), new ParseStatistics());
+    }
+
+    private static List<String> ids(SessionCache cache){
+        return cache.getSessions()
+                    .stream()
+                    .map(Session::getId)
+                    .collect(Collectors.toList());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed(){
+        long size = createSession("x").getEstimatedBytes();
+        assertTrue(size > 0);
+
+        var cache = new SessionCache(size * 2 + size / 2);
+        cache.put(createSession("a"));
+        cache.put(createSession("b"));
+        assertTrue(cache.get("a").isPresent());
+
+        // "b" is the least recently used one because "a" was accessed.
+        cache.put(createSession("c"));
+        assertEquals(List.of("a", "c"), ids(cache));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(size * 2, cache.getUsedBytes());
+        assertFalse(cache.get("b").isPresent());
+    }
+
+    @Test
+    void keepLatestOverBudget(){
+        var cache = new SessionCache(1);
+        cache.put(createSession("a"));
+        var b = createSession("b");
+        cache.put(b);
+
+        assertEquals(List.of("b"), ids(cache));
+        assertEquals(b.getEstimatedBytes(), cache.getUsedBytes());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void putSameId(){
+        var cache = new SessionCache(Long.MAX_VALUE);
+        var first = createSession("a");
+        assertSame(first, cache.put(first));
+        assertSame(first, cache.put(createSession("a")));
+        assertEquals(first.getEstimatedBytes(), cache.getUsedBytes());
+    }
+
+    @Test
+    void remove(){
+        var cache = new SessionCache(Long.MAX_VALUE);
+        cache.put(createSession("a"));
+        assertTrue(cache.remove("a"));
+        assertFalse(cache.remove("a"));
+        assertEquals(0, cache.getUsedBytes());
+        assertEquals(0, cache.getEvictions());
+    }
+
+}